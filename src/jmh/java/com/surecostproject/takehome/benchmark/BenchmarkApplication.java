@@ -0,0 +1,50 @@
+package com.surecostproject.takehome.benchmark;
+
+import com.surecostproject.takehome.TakehomeApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against a private in-memory H2 database, so each benchmark trial
+ * measures the real service and repository beans in isolation.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName, String... extraProperties) {
+        return start(WebApplicationType.NONE, databaseName, extraProperties);
+    }
+
+    /**
+     * Boots the application with the embedded web server on a random port, for benchmarks that go through HTTP.
+     * The port is available as the {@code local.server.port} property of the returned context.
+     */
+    public static ConfigurableApplicationContext startWeb(String databaseName, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(extraProperties));
+        properties.add("server.port=0");
+        return start(WebApplicationType.SERVLET, databaseName, properties.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                        String databaseName, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "spring.h2.console.enabled=false",
+                "springdoc.api-docs.enabled=false",
+                "springdoc.swagger-ui.enabled=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        properties.addAll(List.of(extraProperties));
+
+        return new SpringApplicationBuilder(TakehomeApplication.class)
+                .web(webApplicationType)
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+}
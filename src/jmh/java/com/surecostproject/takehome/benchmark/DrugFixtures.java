@@ -0,0 +1,88 @@
+package com.surecostproject.takehome.benchmark;
+
+import com.surecostproject.takehome.dto.DrugDTO;
+import com.surecostproject.takehome.entity.Drug;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic catalog data for benchmarks. The same seed always produces the same rows,
+ * which keeps results comparable between runs and between branches.
+ */
+public final class DrugFixtures {
+
+    public static final long SEED = 42L;
+
+    private static final String[] PREFIXES = {
+            "Amox", "Ibu", "Para", "Ator", "Metf", "Lisin", "Omep", "Simv", "Losar", "Gaba",
+            "Sertr", "Hydro", "Predn", "Clopi", "Warf", "Tram", "Cetir", "Fluox", "Azith", "Dox"
+    };
+    private static final String[] SUFFIXES = {
+            "icillin", "profen", "cetamol", "vastatin", "ormin", "opril", "razole", "sartan",
+            "pentin", "aline", "codone", "solone", "dogrel", "arin", "adol", "izine", "etine", "romycin"
+    };
+    private static final String[] MANUFACTURERS = {
+            "Pfizer", "Bayer", "Novartis", "Roche", "Merck", "Sanofi", "GlaxoSmithKline", "AbbVie",
+            "Teva", "Sandoz", "Mylan", "Cipla", "Lupin", "Sun Pharma", "Apotex", "Aurobindo"
+    };
+
+    private DrugFixtures() {
+    }
+
+    public static List<Drug> drugs(int count) {
+        Random random = new Random(SEED);
+        List<Drug> drugs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Drug drug = new Drug();
+            drug.setName(name(random, i));
+            drug.setManufacturerName(MANUFACTURERS[random.nextInt(MANUFACTURERS.length)]);
+            drug.setQuantity(random.nextInt(5_000));
+            drug.setPrice(price(random));
+            drugs.add(drug);
+        }
+        return drugs;
+    }
+
+    public static List<DrugDTO> drugDTOs(int count) {
+        List<DrugDTO> dtos = new ArrayList<>(count);
+        for (Drug drug : drugs(count)) {
+            DrugDTO dto = new DrugDTO();
+            dto.setName(drug.getName());
+            dto.setManufacturerName(drug.getManufacturerName());
+            dto.setQuantity(drug.getQuantity());
+            dto.setPrice(drug.getPrice());
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    /**
+     * Detached copies of already persisted drugs with a changed quantity and price,
+     * the shape a bulk update request arrives in.
+     */
+    public static List<Drug> updatesFor(List<Drug> persisted, int round) {
+        List<Drug> updates = new ArrayList<>(persisted.size());
+        for (Drug drug : persisted) {
+            Drug update = new Drug();
+            update.setUid(drug.getUid());
+            update.setName(drug.getName());
+            update.setManufacturerName(drug.getManufacturerName());
+            update.setQuantity(drug.getQuantity() + round);
+            update.setPrice(drug.getPrice().add(BigDecimal.ONE));
+            updates.add(update);
+        }
+        return updates;
+    }
+
+    private static String name(Random random, int i) {
+        return PREFIXES[random.nextInt(PREFIXES.length)] + SUFFIXES[random.nextInt(SUFFIXES.length)]
+                + " " + (5 * (1 + random.nextInt(100))) + "mg #" + i;
+    }
+
+    private static BigDecimal price(Random random) {
+        return BigDecimal.valueOf(50 + random.nextInt(50_000), 2);
+    }
+}
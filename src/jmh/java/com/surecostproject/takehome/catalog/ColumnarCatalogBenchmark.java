@@ -0,0 +1,194 @@
+package com.surecostproject.takehome.catalog;
+
+import com.surecostproject.takehome.benchmark.BenchmarkApplication;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.manufacturer.ManufacturerDictionary;
+import com.surecostproject.takehome.repository.DrugRepository;
+import com.surecostproject.takehome.repository.DrugSpecifications;
+import com.surecostproject.takehome.service.DrugService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read latency of the columnar catalog against the JPA queries DrugService runs without it, for the
+ * same pages: the default name order near the start and deep into the catalog, a name substring,
+ * a price range, a manufacturer and a single drug by id. The catalog side goes through DrugService;
+ * the JPA side calls the repository with the specification and sort the service would pass.
+ *
+ * <p>The write benchmarks measure what keeping the catalog current adds to a write: one drug whose
+ * name and price change every round, so both orders move, and a bulk update of a thousand drugs.
+ * Run them with {@code -p columnar=false} for the same writes without the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class ColumnarCatalogBenchmark {
+
+    private static final int SEED_CHUNK = 10_000;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("name", "uid"));
+    private static final Pageable DEEP_PAGE = PageRequest.of(2_000, 20, Sort.by("name", "uid"));
+    private static final Pageable CHEAPEST_FIRST = PageRequest.of(0, 20, Sort.by("price", "uid"));
+    private static final BigDecimal MIN_PRICE = new BigDecimal("100.00");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("120.00");
+    private static final int BULK_UPDATE_SIZE = 1_000;
+
+    @Param({"100000"})
+    private int catalogSize;
+
+    @Param({"true"})
+    private boolean columnar;
+
+    private ConfigurableApplicationContext context;
+    private DrugService drugService;
+    private DrugRepository drugRepository;
+    private List<Integer> manufacturerIds;
+    private UUID id;
+    private List<Drug> bulkTargets;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void seedCatalog() {
+        context = BenchmarkApplication.start("columnar-catalog-bench",
+                "drug.catalog.columnar.enabled=" + columnar, "drug.search.index.enabled=false", "drug.cache.enabled=false");
+        drugService = context.getBean(DrugService.class);
+        drugRepository = context.getBean(DrugRepository.class);
+        List<Drug> drugs = DrugFixtures.drugs(catalogSize);
+        for (int from = 0; from < drugs.size(); from += SEED_CHUNK) {
+            drugRepository.saveAll(drugs.subList(from, Math.min(drugs.size(), from + SEED_CHUNK)));
+        }
+        // Seeded through the repository, which publishes no change events
+        if (columnar) {
+            ColumnarCatalog catalog = context.getBean(ColumnarCatalog.class);
+            catalog.reload();
+            if (!catalog.isReady()) {
+                throw new IllegalStateException("Columnar catalog did not load");
+            }
+        }
+        manufacturerIds = context.getBean(ManufacturerDictionary.class).idsContaining("sun ph");
+        id = drugs.get(drugs.size() / 2).getUid();
+        bulkTargets = drugs.subList(0, Math.min(drugs.size(), BULK_UPDATE_SIZE));
+    }
+
+    /**
+     * A fresh bulk update per invocation, so building it is not measured.
+     */
+    @State(Scope.Thread)
+    public static class BulkUpdate {
+        private List<Drug> updates;
+        private int round;
+
+        @Setup(Level.Invocation)
+        public void prepareBatch(ColumnarCatalogBenchmark benchmark) {
+            updates = DrugFixtures.updatesFor(benchmark.bulkTargets, ++round);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        drugRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<DrugView> firstPageByNameColumnar() {
+        return drugService.getAllDrugs(FIRST_PAGE, true);
+    }
+
+    @Benchmark
+    public Slice<DrugView> firstPageByNameJpa() {
+        return drugRepository.findViews(Specification.where(null), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<DrugView> deepPageByNameColumnar() {
+        return drugService.getAllDrugs(DEEP_PAGE, false);
+    }
+
+    @Benchmark
+    public Slice<DrugView> deepPageByNameJpa() {
+        return drugRepository.findViewSlice(Specification.where(null), DEEP_PAGE);
+    }
+
+    @Benchmark
+    public Slice<DrugView> nameContainingColumnar() {
+        return drugService.searchByName("atorvas", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<DrugView> nameContainingJpa() {
+        return drugRepository.findViews(DrugSpecifications.nameContains("atorvas"), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<DrugView> priceRangeColumnar() {
+        return drugService.searchByPriceRange(MIN_PRICE, MAX_PRICE, CHEAPEST_FIRST, true);
+    }
+
+    @Benchmark
+    public Slice<DrugView> priceRangeJpa() {
+        return drugRepository.findViews(DrugSpecifications.priceBetween(MIN_PRICE, MAX_PRICE), CHEAPEST_FIRST);
+    }
+
+    @Benchmark
+    public Slice<DrugView> manufacturerColumnar() {
+        return drugService.searchByManufacturer("sun ph", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<DrugView> manufacturerJpa() {
+        return drugRepository.findViews(DrugSpecifications.manufacturerIn(manufacturerIds), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public DrugView byIdColumnar() {
+        return drugService.getDrugById(id);
+    }
+
+    @Benchmark
+    public List<DrugView> byIdJpa() {
+        return drugRepository.findViews(DrugSpecifications.idIn(List.of(id)));
+    }
+
+    @Benchmark
+    public Drug updateOneDrug() {
+        round++;
+        Drug update = new Drug();
+        update.setName("Benchmark " + round % 1_000);
+        update.setManufacturerName("Pfizer");
+        update.setQuantity(round % 5_000);
+        update.setPrice(BigDecimal.valueOf(round % 10_000, 2));
+        return drugService.updateDrug(id, update);
+    }
+
+    @Benchmark
+    public List<Drug> updateBulkDrugs(BulkUpdate bulk) {
+        return drugService.updateBulkDrugs(bulk.updates);
+    }
+}
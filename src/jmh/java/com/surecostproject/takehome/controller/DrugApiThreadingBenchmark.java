@@ -0,0 +1,113 @@
+package com.surecostproject.takehome.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.surecostproject.takehome.benchmark.BenchmarkApplication;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.dto.BulkDrugDTO;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.repository.DrugRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed HTTP load against the running application, once with Tomcat's platform thread pool and once
+ * with virtual threads. Most client threads read single drugs and search pages while a few post bulk
+ * creates, so slow bulk transactions compete with cheap reads for request threads and connections.
+ * The virtual thread run prints any carrier pinning through -Djdk.tracePinnedThreads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Djdk.tracePinnedThreads=short"})
+public class DrugApiThreadingBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+    private static final int BULK_SIZE = 100;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private List<UUID> ids;
+    private String bulkBody;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        context = BenchmarkApplication.startWeb("drug-threading-bench",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "server.tomcat.threads.max=50");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/drugs";
+        ids = context.getBean(DrugRepository.class).saveAll(DrugFixtures.drugs(CATALOG_SIZE))
+                .stream().map(Drug::getUid).toList();
+
+        BulkDrugDTO bulk = new BulkDrugDTO();
+        bulk.setDrugs(DrugFixtures.drugDTOs(BULK_SIZE));
+        bulkBody = context.getBean(ObjectMapper.class).writeValueAsString(bulk);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(48)
+    public int getDrugById() throws Exception {
+        UUID id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(12)
+    public int searchByName() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/search/name?name=statin&size=20")).GET().build());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public int createBulkDrugs() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(bulkBody))
+                .build());
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
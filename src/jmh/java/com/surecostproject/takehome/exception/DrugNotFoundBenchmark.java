@@ -0,0 +1,105 @@
+package com.surecostproject.takehome.exception;
+
+import com.surecostproject.takehome.benchmark.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The 404 path for missing drug ids. {@code missingDrugOverHttp} hammers the running server from 32
+ * client threads, with error logging limited as configured and with every error logged, as before
+ * the limit. The throw benchmarks isolate the cost of the exception itself, thrown from a call
+ * stack about as deep as Spring MVC's, with and without a stack trace.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DrugNotFoundBenchmark {
+
+    private static final int STACK_DEPTH = 120;
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"10", "2147483647"})
+        private int logLimitPerSecond;
+
+        private ConfigurableApplicationContext context;
+        private HttpClient client;
+        private String baseUrl;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = BenchmarkApplication.startWeb("drug-not-found-bench",
+                    "drug.errors.log-limit-per-second=" + logLimitPerSecond);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/drugs/";
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(32)
+    public int missingDrugOverHttp(Server server) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl + UUID.randomUUID())).GET().build();
+        HttpResponse<Void> response = server.client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 404) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    @Benchmark
+    public RuntimeException throwWithStackTrace() {
+        try {
+            throwAt(STACK_DEPTH, true);
+        } catch (RuntimeException e) {
+            return e;
+        }
+        throw new IllegalStateException();
+    }
+
+    @Benchmark
+    public RuntimeException throwStackless() {
+        try {
+            throwAt(STACK_DEPTH, false);
+        } catch (RuntimeException e) {
+            return e;
+        }
+        throw new IllegalStateException();
+    }
+
+    private static void throwAt(int depth, boolean stackTrace) {
+        if (depth > 0) {
+            throwAt(depth - 1, stackTrace);
+            return;
+        }
+        UUID id = UUID.randomUUID();
+        throw stackTrace ? new RuntimeException("Drug not found with id: " + id) : new DrugNotFoundException(id);
+    }
+}
@@ -0,0 +1,112 @@
+package com.surecostproject.takehome.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.dto.BulkDrugDTO;
+import com.surecostproject.takehome.dto.DrugDTO;
+import com.surecostproject.takehome.dto.DrugPageDTO;
+import com.surecostproject.takehome.dto.DrugView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode cost of a bulk request and a page response in JSON, Smile and CBOR, each with
+ * and without gzip. The encoded sizes are printed once per trial, to weigh against the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DrugEncodingBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"1000"})
+    private int rows;
+
+    private ObjectMapper mapper;
+    private BulkDrugDTO bulk;
+    private DrugPageDTO page;
+    private byte[] encodedBulk;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "smile" -> new SmileMapper();
+            case "cbor" -> new CBORMapper();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        List<DrugDTO> drugs = DrugFixtures.drugDTOs(rows);
+        bulk = new BulkDrugDTO();
+        bulk.setDrugs(drugs);
+        List<DrugView> views = drugs.stream()
+                .map(drug -> new DrugView(UUID.randomUUID(), drug.getName(), drug.getManufacturerName(),
+                        drug.getQuantity(), drug.getPrice(), 0L))
+                .toList();
+        page = DrugPageDTO.builder()
+                .content(views)
+                .page(0)
+                .size(rows)
+                .hasNext(true)
+                .totalElements(rows * 10L)
+                .build();
+        encodedBulk = encodeBulk();
+        System.out.printf("%n%s%s: bulk request %d bytes, page response %d bytes%n",
+                format, gzip ? "+gzip" : "", encodedBulk.length, encodePage().length);
+    }
+
+    @Benchmark
+    public byte[] encodeBulk() throws IOException {
+        return encode(bulk);
+    }
+
+    @Benchmark
+    public BulkDrugDTO decodeBulk() throws IOException {
+        InputStream in = new ByteArrayInputStream(encodedBulk);
+        try (InputStream body = gzip ? new GZIPInputStream(in) : in) {
+            return mapper.readValue(body, BulkDrugDTO.class);
+        }
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws IOException {
+        return encode(page);
+    }
+
+    private byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            mapper.writeValue(out, value);
+        }
+        return bytes.toByteArray();
+    }
+}
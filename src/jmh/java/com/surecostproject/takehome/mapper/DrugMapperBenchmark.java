@@ -0,0 +1,51 @@
+package com.surecostproject.takehome.mapper;
+
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.dto.DrugDTO;
+import com.surecostproject.takehome.entity.Drug;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DrugMapperBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private final DrugMapper drugMapper = new DrugMapper();
+    private List<Drug> drugs;
+    private Drug single;
+
+    @Setup
+    public void setUp() {
+        drugs = DrugFixtures.drugs(rows);
+        single = drugs.get(0);
+    }
+
+    @Benchmark
+    public DrugDTO toDTO() {
+        return drugMapper.toDTO(single);
+    }
+
+    @Benchmark
+    public List<DrugDTO> toDTOList() {
+        return drugMapper.toDTOList(drugs);
+    }
+}
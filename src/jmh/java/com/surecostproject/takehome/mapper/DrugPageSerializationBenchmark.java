@@ -0,0 +1,71 @@
+package com.surecostproject.takehome.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.dto.DrugPageDTO;
+import com.surecostproject.takehome.dto.DrugView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing one page of drugs as a Spring Data {@link PageImpl} versus the lean {@link DrugPageDTO}
+ * written by {@link DrugPageSerializer}. Compare the returned byte counts and {@code -prof gc} allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DrugPageSerializationBenchmark {
+
+    @Param({"20", "200", "2000"})
+    private int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Page<DrugView> page;
+    private DrugPageDTO leanPage;
+
+    @Setup
+    public void setUp() {
+        List<DrugView> views = DrugFixtures.drugs(rows).stream()
+                .map(drug -> new DrugView(UUID.randomUUID(), drug.getName(), drug.getManufacturerName(),
+                        drug.getQuantity(), drug.getPrice(), 0L))
+                .toList();
+        page = new PageImpl<>(views, PageRequest.of(0, rows, Sort.by("name")), rows * 10L);
+        leanPage = DrugPageDTO.builder()
+                .content(views)
+                .page(0)
+                .size(rows)
+                .hasNext(true)
+                .totalElements(page.getTotalElements())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] pageImpl() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] leanPage() throws Exception {
+        return objectMapper.writeValueAsBytes(leanPage);
+    }
+}
@@ -0,0 +1,81 @@
+package com.surecostproject.takehome.repository;
+
+import com.surecostproject.takehome.benchmark.BenchmarkApplication;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.dto.DrugDTO;
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.mapper.DrugMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the catalog read as managed entities mapped to DTOs, versus the scalar projection the read
+ * endpoints now use. Run with {@code -prof gc} to compare allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DrugProjectionBenchmark {
+
+    private static final int CATALOG_SIZE = 20_000;
+
+    @Param({"20", "200", "2000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private DrugRepository drugRepository;
+    private DrugMapper drugMapper;
+    private TransactionTemplate readOnly;
+    private Pageable page;
+
+    @Setup(Level.Trial)
+    public void seedCatalog() {
+        context = BenchmarkApplication.start("drug-projection-bench");
+        drugRepository = context.getBean(DrugRepository.class);
+        drugMapper = context.getBean(DrugMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        drugRepository.saveAll(DrugFixtures.drugs(CATALOG_SIZE));
+        page = PageRequest.of(1, pageSize, Sort.by("name"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        drugRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Page<DrugDTO> entityPage() {
+        return readOnly.execute(status -> drugRepository.findAll(page).map(drugMapper::toDTO));
+    }
+
+    @Benchmark
+    public Page<DrugView> projectionPage() {
+        return drugRepository.findViews(Specification.where(null), page);
+    }
+}
@@ -0,0 +1,68 @@
+package com.surecostproject.takehome.repository;
+
+import com.surecostproject.takehome.benchmark.BenchmarkApplication;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.entity.Drug;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search finders against a seeded H2 catalog, using the same first-page request the controller builds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DrugRepositoryBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private DrugRepository drugRepository;
+
+    @Setup(Level.Trial)
+    public void seedCatalog() {
+        context = BenchmarkApplication.start("drug-repository-bench");
+        drugRepository = context.getBean(DrugRepository.class);
+        drugRepository.saveAll(DrugFixtures.drugs(catalogSize));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        drugRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Drug> findByNameContainingIgnoreCase() {
+        return drugRepository.findByNameContainingIgnoreCase("VASTATIN", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<Drug> findByPriceBetween() {
+        return drugRepository.findByPriceBetween(new BigDecimal("100.00"), new BigDecimal("120.00"), FIRST_PAGE);
+    }
+}
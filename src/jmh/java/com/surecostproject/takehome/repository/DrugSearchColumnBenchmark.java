@@ -0,0 +1,91 @@
+package com.surecostproject.takehome.repository;
+
+import com.surecostproject.takehome.benchmark.BenchmarkApplication;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.service.DrugService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name and manufacturer searches at catalog scale: lower(column) LIKE scans against the
+ * normalized search column, where a prefix match can use the column index, and manufacturer
+ * searches answered through the manufacturer dictionary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class DrugSearchColumnBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+    private static final int SEED_CHUNK = 10_000;
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private DrugRepository drugRepository;
+    private DrugService drugService;
+
+    @Setup(Level.Trial)
+    public void seedCatalog() {
+        context = BenchmarkApplication.start("drug-search-column-bench",
+                "drug.search.index.enabled=false", "drug.cache.enabled=false");
+        drugRepository = context.getBean(DrugRepository.class);
+        drugService = context.getBean(DrugService.class);
+        List<Drug> drugs = DrugFixtures.drugs(catalogSize);
+        for (int from = 0; from < drugs.size(); from += SEED_CHUNK) {
+            drugRepository.saveAll(drugs.subList(from, Math.min(drugs.size(), from + SEED_CHUNK)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Drug> nameContainingIgnoreCase() {
+        return drugRepository.findByNameContainingIgnoreCase("atorvas", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<Drug> nameSearchContaining() {
+        return drugRepository.findByNameSearchContaining("atorvas", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<Drug> nameSearchStartingWith() {
+        return drugRepository.findByNameSearchStartingWith("atorvas", PageRequest.of(0, 20, Sort.by("nameSearch", "uid")));
+    }
+
+    // Resolved to manufacturer ids in memory, then an indexed manufacturer_id IN (...) lookup
+    @Benchmark
+    public Slice<DrugView> manufacturerIdLookup() {
+        return drugService.searchByManufacturer("sun ph", FIRST_PAGE);
+    }
+}
@@ -0,0 +1,72 @@
+package com.surecostproject.takehome.search;
+
+import com.surecostproject.takehome.benchmark.BenchmarkApplication;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.repository.DrugRepository;
+import com.surecostproject.takehome.service.DrugService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring search served by the trigram index, to compare with the LIKE scans in DrugRepositoryBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DrugSearchIndexBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private DrugService drugService;
+    private DrugRepository drugRepository;
+
+    @Setup(Level.Trial)
+    public void seedCatalog() {
+        context = BenchmarkApplication.start("drug-search-index-bench");
+        drugService = context.getBean(DrugService.class);
+        drugRepository = context.getBean(DrugRepository.class);
+        drugRepository.saveAll(DrugFixtures.drugs(catalogSize));
+        context.getBean(DrugSearchIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        drugRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<DrugView> searchByName() {
+        return drugService.searchByName("VASTATIN", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<DrugView> searchByManufacturer() {
+        return drugService.searchByManufacturer("pharm", FIRST_PAGE);
+    }
+}
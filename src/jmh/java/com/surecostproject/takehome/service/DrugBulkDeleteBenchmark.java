@@ -0,0 +1,96 @@
+package com.surecostproject.takehome.service;
+
+import com.surecostproject.takehome.benchmark.BenchmarkApplication;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.repository.DrugRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the set-based bulk delete against the previous per-row path
+ * (existsById for every id, then deleteAllById which loads each entity before removing it).
+ * The statements counter reports JDBC statements prepared per delete call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DrugBulkDeleteBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private DrugService drugService;
+    private DrugRepository drugRepository;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private List<UUID> ids;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class QueryCount {
+        public long statements;
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("drug-delete-bench", "spring.jpa.properties.hibernate.generate_statistics=true");
+        drugService = context.getBean(DrugService.class);
+        drugRepository = context.getBean(DrugRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void seedRecallList() {
+        ids = drugRepository.saveAll(DrugFixtures.drugs(rows)).stream().map(Drug::getUid).toList();
+        statistics.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public void deleteBulkDrugs(QueryCount queryCount) {
+        drugService.deleteBulkDrugs(ids);
+        queryCount.statements += statistics.getPrepareStatementCount();
+    }
+
+    @Benchmark
+    public void perRowDelete(QueryCount queryCount) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (UUID id : ids) {
+                drugRepository.existsById(id);
+            }
+            drugRepository.deleteAllById(ids);
+        });
+        queryCount.statements += statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,113 @@
+package com.surecostproject.takehome.service;
+
+import com.surecostproject.takehome.benchmark.BenchmarkApplication;
+import com.surecostproject.takehome.benchmark.DrugFixtures;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.exception.BulkProcessingException;
+import com.surecostproject.takehome.repository.DrugRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk write paths of {@link DrugService}. Every invocation gets freshly built entities,
+ * and created rows are removed again so each measurement starts from the same table state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DrugServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private DrugService drugService;
+    private DrugRepository drugRepository;
+
+    private List<Drug> persisted;
+    private List<Drug> batch;
+    private List<Drug> updates;
+    private List<Drug> invalidBatch;
+    private List<Drug> created;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("drug-service-bench");
+        drugService = context.getBean(DrugService.class);
+        drugRepository = context.getBean(DrugRepository.class);
+        persisted = drugService.createBulkDrugs(DrugFixtures.drugs(rows));
+        // Every tenth row breaks two rules, so the error path is measured at scale
+        invalidBatch = DrugFixtures.drugs(rows);
+        for (int i = 0; i < invalidBatch.size(); i += 10) {
+            invalidBatch.get(i).setName(" ");
+            invalidBatch.get(i).setQuantity(-1);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareBatch() {
+        round++;
+        batch = DrugFixtures.drugs(rows);
+        updates = DrugFixtures.updatesFor(persisted, round);
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeCreated() {
+        if (created != null) {
+            drugRepository.deleteAllByIdInBatch(created.stream().map(Drug::getUid).toList());
+            created = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        drugRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public List<Drug> validateBulkDrugs() {
+        drugService.validateBulkDrugs(batch);
+        return batch;
+    }
+
+    @Benchmark
+    public BulkProcessingException validateInvalidBulkDrugs() {
+        try {
+            drugService.validateBulkDrugs(invalidBatch);
+            throw new IllegalStateException("Expected validation to fail");
+        } catch (BulkProcessingException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public List<Drug> createBulkDrugs() {
+        created = drugService.createBulkDrugs(batch);
+        return created;
+    }
+
+    @Benchmark
+    public List<Drug> updateBulkDrugs() {
+        return drugService.updateBulkDrugs(updates);
+    }
+}
@@ -0,0 +1,54 @@
+package com.surecostproject.takehome.cache;
+
+import com.surecostproject.takehome.datasource.ReadRouting;
+import com.surecostproject.takehome.event.DrugChangeEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide change counter, advanced by every committed {@link DrugChangeEvent}. Its value is the
+ * ETag of list and search pages: any write may move rows into or out of any page, so a page is only
+ * known to be unchanged while the counter is.
+ *
+ * <p>The counter lives in memory, so the tag also carries the instance start time. After a restart,
+ * or against another instance, a client's tag never matches and the page is simply sent again.
+ *
+ * <p>With read replicas, a page read shortly after a change may come from a replica that has not
+ * applied it yet. No tag is given out until {@code drug.datasource.read-your-writes-window} has
+ * passed since the last change, unless the request reads from the primary, so a stale page is never
+ * labelled current.
+ */
+@Component
+public class CatalogVersion {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+    private final ReadRouting readRouting;
+    private final long settleNanos;
+    private volatile long lastChangeNanos = System.nanoTime();
+
+    public CatalogVersion(ReadRouting readRouting) {
+        this.readRouting = readRouting;
+        this.settleNanos = readRouting.readYourWritesWindow().toNanos();
+    }
+
+    @TransactionalEventListener
+    public void onDrugChange(DrugChangeEvent event) {
+        changes.incrementAndGet();
+        lastChangeNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the current tag. Callers read it before querying, so a response is never labelled with
+     * a version newer than its contents. Returns null while replicas may still lag the last change.
+     */
+    public String etag() {
+        String etag = epoch + "-" + changes.get();
+        if (readRouting.replicasEnabled() && !readRouting.pinnedToPrimary()
+                && System.nanoTime() - lastChangeNanos < settleNanos) {
+            return null;
+        }
+        return etag;
+    }
+}
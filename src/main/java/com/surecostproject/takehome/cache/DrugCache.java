@@ -0,0 +1,173 @@
+package com.surecostproject.takehome.cache;
+
+import com.surecostproject.takehome.datasource.ReadRouting;
+import com.surecostproject.takehome.dto.CacheStatsDTO;
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.event.DrugChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for single drug lookups, evicting least recently used entries
+ * beyond {@code drug.cache.max-size} and entries older than {@code drug.cache.ttl}.
+ *
+ * <p>Entries are invalidated from committed {@link DrugChangeEvent}s. Every invalidation advances
+ * a generation counter, and a value loaded before an invalidation is not stored, so a read that
+ * races a commit cannot put the pre-commit row back. Values loaded inside a read-write transaction
+ * are never stored either, because that transaction may still roll back. Misses are loaded from the
+ * primary: a row read from a lagging replica would otherwise stay cached until it expires.
+ */
+@Component
+public class DrugCache {
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ReadRouting readRouting;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public DrugCache(@Value("${drug.cache.enabled:true}") boolean enabled,
+                     @Value("${drug.cache.max-size:10000}") int maxSize,
+                     @Value("${drug.cache.ttl:PT5M}") Duration ttl,
+                     ReadRouting readRouting) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.readRouting = readRouting;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                if (size() > DrugCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private record Entry(DrugView drug, long expiresAtNanos) {
+    }
+
+    /**
+     * Returns the cached drug, or loads, caches and returns it. Views are immutable, so the cached
+     * instance is handed out as is. Exceptions from the loader propagate and nothing is cached.
+     */
+    public DrugView get(UUID id, Function<UUID, DrugView> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        DrugView cached = lookup(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        long loadGeneration = generation.get();
+        DrugView loaded = readRouting.readFromPrimary(() -> loader.apply(id));
+        if (!isInsideWriteTransaction()) {
+            store(id, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener
+    public void onDrugChange(DrugChangeEvent event) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            for (Drug drug : event.upserted()) {
+                invalidate(drug.getUid());
+            }
+            for (UUID id : event.deleted()) {
+                invalidate(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return CacheStatsDTO.builder()
+                .size(size)
+                .maxSize(maxSize)
+                .ttlSeconds(Duration.ofNanos(ttlNanos).toSeconds())
+                .hits(hitCount)
+                .misses(misses.sum())
+                .hitRate(lookups == 0 ? 0.0 : (double) hitCount / lookups)
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    private DrugView lookup(UUID id) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+                entries.remove(id);
+                expirations.increment();
+                return null;
+            }
+            return entry.drug();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(UUID id, DrugView drug, long loadGeneration) {
+        lock.lock();
+        try {
+            if (generation.get() == loadGeneration) {
+                entries.put(id, new Entry(drug, System.nanoTime() + ttlNanos));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void invalidate(UUID id) {
+        if (entries.remove(id) != null) {
+            invalidations.increment();
+        }
+    }
+
+    private static boolean isInsideWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,521 @@
+package com.surecostproject.takehome.catalog;
+
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.repository.DrugBatchRepository.DrugRow;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * The drug table as parallel columns, one array per field indexed by row: quantities and prices in
+ * cents as primitives, names as {@link NameDictionary} codes and manufacturers as their dictionary ids.
+ * Two secondary orders keep the row numbers sorted by (name, uid) and by (price, uid), so the default
+ * name order and price ranges are read off in order instead of sorted per query.
+ *
+ * <p>Not thread-safe; {@link ColumnarCatalog} reads it under a shared lock and applies changes under
+ * an exclusive one.
+ */
+class CatalogColumns {
+    private static final Set<String> SORT_PROPERTIES =
+            Set.of("uid", "name", "nameSearch", "manufacturerName", "manufacturer.name", "quantity", "price");
+    // Changes touching more rows than this are merged into the orders in one pass instead of being
+    // spliced in row by row, which shifts the order arrays once per row
+    static final int SPLICE_LIMIT = 64;
+
+    private final NameDictionary names = new NameDictionary();
+    private final IntFunction<String> manufacturerNames;
+    private final Map<UUID, Integer> rowsById = new HashMap<>();
+
+    private UUID[] uids = new UUID[64];
+    private int[] nameCodes = new int[64];
+    private int[] manufacturerIds = new int[64];
+    private int[] quantities = new int[64];
+    private long[] priceCents = new long[64];
+    private long[] versions = new long[64];
+    private int size;
+
+    // The first size entries are in use; the rest is room to splice rows in
+    private int[] nameOrder = new int[0];
+    private int[] priceOrder = new int[0];
+
+    private final RowComparator byName = (a, b) -> {
+        int result = names.name(nameCodes[a]).compareTo(names.name(nameCodes[b]));
+        return result != 0 ? result : compareUids(a, b);
+    };
+    private final RowComparator byPrice = (a, b) -> {
+        int result = Long.compare(priceCents[a], priceCents[b]);
+        return result != 0 ? result : compareUids(a, b);
+    };
+
+    CatalogColumns(IntFunction<String> manufacturerNames) {
+        this.manufacturerNames = manufacturerNames;
+    }
+
+    /**
+     * True if every order of the sort is on a column held here, with the plain comparison the
+     * database would use for it.
+     */
+    static boolean supports(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORT_PROPERTIES.contains(order.getProperty()) || order.isIgnoreCase()
+                    || order.getNullHandling() != Sort.NullHandling.NATIVE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    NameDictionary names() {
+        return names;
+    }
+
+    /**
+     * Adds a row without maintaining the secondary orders; used by the warm load, which sorts them
+     * once with {@link #sortOrders()} at the end.
+     */
+    void append(DrugRow row) {
+        if (size == uids.length) {
+            grow();
+        }
+        int index = size++;
+        uids[index] = row.uid();
+        nameCodes[index] = names.acquire(row.name(), row.nameSearch());
+        setValues(index, row);
+        rowsById.put(row.uid(), index);
+    }
+
+    void sortOrders() {
+        int[] all = new int[size];
+        Arrays.setAll(all, i -> i);
+        nameOrder = sorted(all, byName);
+        priceOrder = sorted(all, byPrice);
+    }
+
+    /**
+     * Brings the rows of a set of ids up to date with what was just read from the database: rows
+     * found are inserted or overwritten, ids not found are removed. A row is only overwritten by a
+     * version at least as new as the one held.
+     *
+     * <p>A few rows are spliced into the orders at positions found by binary search, and only into
+     * the orders whose key changed, so a quantity change leaves both in place. A removed row's slot is
+     * taken by the last row. Larger changes are merged into the orders in one pass.
+     */
+    void apply(Collection<DrugRow> found, Collection<UUID> missing) {
+        if (found.size() + missing.size() > SPLICE_LIMIT) {
+            merge(found, missing);
+            return;
+        }
+        for (UUID id : missing) {
+            Integer index = rowsById.get(id);
+            if (index != null) {
+                remove(index);
+            }
+        }
+        for (DrugRow row : found) {
+            splice(row);
+        }
+    }
+
+    private void splice(DrugRow row) {
+        Integer index = rowsById.get(row.uid());
+        if (index == null) {
+            append(row);
+            nameOrder = insert(nameOrder, size - 1, size - 1, byName);
+            priceOrder = insert(priceOrder, size - 1, size - 1, byPrice);
+            return;
+        }
+        if (row.version() < versions[index]) {
+            return;
+        }
+        int code = names.acquire(row.name(), row.nameSearch());
+        boolean nameMoves = code != nameCodes[index];
+        boolean priceMoves = toCents(row.price()) != priceCents[index];
+        // Taken out while the row still holds the values it is ordered by
+        if (nameMoves) {
+            delete(nameOrder, size, index, byName);
+        }
+        if (priceMoves) {
+            delete(priceOrder, size, index, byPrice);
+        }
+        names.release(nameCodes[index]);
+        nameCodes[index] = code;
+        setValues(index, row);
+        if (nameMoves) {
+            nameOrder = insert(nameOrder, size - 1, index, byName);
+        }
+        if (priceMoves) {
+            priceOrder = insert(priceOrder, size - 1, index, byPrice);
+        }
+    }
+
+    private void remove(int index) {
+        delete(nameOrder, size, index, byName);
+        delete(priceOrder, size, index, byPrice);
+        rowsById.remove(uids[index]);
+        names.release(nameCodes[index]);
+        int last = size - 1;
+        if (index != last) {
+            // The last row moves into the freed slot; its order entries are renumbered where they are
+            nameOrder[position(nameOrder, last, last, byName)] = index;
+            priceOrder[position(priceOrder, last, last, byPrice)] = index;
+            uids[index] = uids[last];
+            nameCodes[index] = nameCodes[last];
+            manufacturerIds[index] = manufacturerIds[last];
+            quantities[index] = quantities[last];
+            priceCents[index] = priceCents[last];
+            versions[index] = versions[last];
+            rowsById.put(uids[index], index);
+        }
+        uids[last] = null;
+        size = last;
+    }
+
+    private void merge(Collection<DrugRow> found, Collection<UUID> missing) {
+        int count = size;
+        BitSet changed = new BitSet(size);
+        BitSet removed = new BitSet(size);
+        for (UUID id : missing) {
+            Integer index = rowsById.get(id);
+            if (index != null) {
+                removed.set(index);
+            }
+        }
+        for (DrugRow row : found) {
+            Integer index = rowsById.get(row.uid());
+            if (index == null) {
+                append(row);
+                changed.set(size - 1);
+            } else if (row.version() >= versions[index]) {
+                int code = names.acquire(row.name(), row.nameSearch());
+                names.release(nameCodes[index]);
+                nameCodes[index] = code;
+                setValues(index, row);
+                changed.set(index);
+            }
+        }
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+
+        // Drops the affected rows from the orders, compacts the columns over removed rows, then
+        // merges the changed rows back in at their new positions
+        int[] keptByName = without(nameOrder, count, changed, removed);
+        int[] keptByPrice = without(priceOrder, count, changed, removed);
+        int[] moved = removed.isEmpty() ? null : compact(removed);
+        int[] changedRows = changed.stream().map(index -> moved == null ? index : moved[index]).toArray();
+        nameOrder = merge(renumber(keptByName, moved), sorted(changedRows, byName), byName);
+        priceOrder = merge(renumber(keptByPrice, moved), sorted(changedRows, byPrice), byPrice);
+    }
+
+    DrugView view(UUID id) {
+        Integer index = rowsById.get(id);
+        return index == null ? null : view(index);
+    }
+
+    /**
+     * Selects a page of the rows accepted by the filter. Without a sort, and for sorts by name or
+     * price alone, rows are read off the matching secondary order, restricted by binary search to the
+     * filter's price bounds when it is the price order; other sorts sort the matching rows.
+     * Without other filters a page is read by position; otherwise a slice stops reading at the first
+     * row past the page, and a page reads on to count every match.
+     */
+    Slice<DrugView> select(RowFilter filter, Pageable pageable, boolean countTotal) {
+        Sort sort = pageable.getSort();
+        List<Sort.Order> orders = sort.toList();
+        Sort.Order first = orders.isEmpty() ? Sort.Order.asc("name") : orders.get(0);
+        boolean tieOnUid = orders.size() <= 1
+                || orders.size() == 2 && orders.get(1).getProperty().equals("uid") && orders.get(1).getDirection() == first.getDirection();
+
+        int[] rows;
+        int from;
+        int to;
+        boolean ascending = first.isAscending();
+        // True when every row between from and to matches, so a page is read by position
+        boolean allMatch;
+        if (tieOnUid && first.getProperty().equals("name")) {
+            rows = nameOrder;
+            from = 0;
+            to = size;
+            allMatch = filter.isUnfiltered();
+        } else if (tieOnUid && first.getProperty().equals("price")) {
+            rows = priceOrder;
+            from = firstAtOrAbove(filter.minCents());
+            to = Math.max(from, filter.maxCents() == Long.MAX_VALUE ? size : firstAtOrAbove(filter.maxCents() + 1));
+            allMatch = filter.filtersOnlyPrice();
+        } else {
+            rows = sorted(matchingRows(filter), comparator(sort));
+            from = 0;
+            to = rows.length;
+            ascending = true;
+            allMatch = true;
+        }
+
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        List<DrugView> content = new ArrayList<>(Math.min(limit, to - from));
+        if (allMatch) {
+            int start = (int) Math.min(offset, to - from);
+            int end = (int) Math.min((long) start + limit, to - from);
+            for (int i = start; i < end; i++) {
+                content.add(view(rows[ascending ? from + i : to - 1 - i]));
+            }
+            return countTotal
+                    ? new PageImpl<>(content, pageable, to - from)
+                    : new SliceImpl<>(content, pageable, end < to - from);
+        }
+
+        long matched = 0;
+        boolean hasNext = false;
+        for (int i = 0; i < to - from; i++) {
+            int index = rows[ascending ? from + i : to - 1 - i];
+            if (!matches(filter, index)) {
+                continue;
+            }
+            if (matched >= offset) {
+                if (content.size() < limit) {
+                    content.add(view(index));
+                } else {
+                    hasNext = true;
+                    if (!countTotal) {
+                        break;
+                    }
+                }
+            }
+            matched++;
+        }
+        return countTotal ? new PageImpl<>(content, pageable, matched) : new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private boolean matches(RowFilter filter, int index) {
+        long price = priceCents[index];
+        return price >= filter.minCents() && price <= filter.maxCents()
+                && quantities[index] >= filter.minQuantity()
+                && (filter.manufacturerIds() == null || filter.manufacturerIds().get(manufacturerIds[index]))
+                && (filter.nameCodes() == null || filter.nameCodes()[nameCodes[index]]);
+    }
+
+    private int[] matchingRows(RowFilter filter) {
+        int[] rows = new int[size];
+        int count = 0;
+        for (int index = 0; index < size; index++) {
+            if (matches(filter, index)) {
+                rows[count++] = index;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    // First position in the price order whose price is at least the given number of cents
+    private int firstAtOrAbove(long cents) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (priceCents[priceOrder[middle]] < cents) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private RowComparator comparator(Sort sort) {
+        RowComparator comparator = null;
+        for (Sort.Order order : sort) {
+            RowComparator next = switch (order.getProperty()) {
+                case "uid" -> this::compareUids;
+                case "name" -> (a, b) -> names.name(nameCodes[a]).compareTo(names.name(nameCodes[b]));
+                case "nameSearch" -> (a, b) -> names.searchForm(nameCodes[a]).compareTo(names.searchForm(nameCodes[b]));
+                case "manufacturerName", "manufacturer.name" ->
+                        (a, b) -> manufacturerNames.apply(manufacturerIds[a]).compareTo(manufacturerNames.apply(manufacturerIds[b]));
+                case "quantity" -> (a, b) -> Integer.compare(quantities[a], quantities[b]);
+                case "price" -> (a, b) -> Long.compare(priceCents[a], priceCents[b]);
+                default -> throw new IllegalArgumentException("Unsupported sort property " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                RowComparator ascending = next;
+                next = (a, b) -> ascending.compare(b, a);
+            }
+            comparator = comparator == null ? next : comparator.then(next);
+        }
+        return comparator;
+    }
+
+    // Unsigned, most significant half first, which is how the database orders uuid columns
+    private int compareUids(int a, int b) {
+        int result = Long.compareUnsigned(uids[a].getMostSignificantBits(), uids[b].getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(uids[a].getLeastSignificantBits(), uids[b].getLeastSignificantBits());
+    }
+
+    private DrugView view(int index) {
+        return new DrugView(uids[index], names.name(nameCodes[index]), manufacturerNames.apply(manufacturerIds[index]),
+                quantities[index], BigDecimal.valueOf(priceCents[index], 2), versions[index]);
+    }
+
+    private void setValues(int index, DrugRow row) {
+        manufacturerIds[index] = row.manufacturerId();
+        quantities[index] = row.quantity();
+        priceCents[index] = toCents(row.price());
+        versions[index] = row.version();
+    }
+
+    /**
+     * Moves the remaining rows down over the removed ones and returns each old row number's new one.
+     */
+    private int[] compact(BitSet removed) {
+        int[] moved = new int[size];
+        int target = 0;
+        for (int index = 0; index < size; index++) {
+            if (removed.get(index)) {
+                rowsById.remove(uids[index]);
+                names.release(nameCodes[index]);
+                moved[index] = -1;
+                continue;
+            }
+            if (target != index) {
+                uids[target] = uids[index];
+                nameCodes[target] = nameCodes[index];
+                manufacturerIds[target] = manufacturerIds[index];
+                quantities[target] = quantities[index];
+                priceCents[target] = priceCents[index];
+                versions[target] = versions[index];
+                rowsById.put(uids[target], target);
+            }
+            moved[index] = target++;
+        }
+        Arrays.fill(uids, target, size, null);
+        size = target;
+        return moved;
+    }
+
+    private void grow() {
+        int capacity = uids.length * 2;
+        uids = Arrays.copyOf(uids, capacity);
+        nameCodes = Arrays.copyOf(nameCodes, capacity);
+        manufacturerIds = Arrays.copyOf(manufacturerIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+
+    private static int[] without(int[] order, int count, BitSet changed, BitSet removed) {
+        int[] kept = new int[count];
+        int keptCount = 0;
+        for (int i = 0; i < count; i++) {
+            int index = order[i];
+            if (!changed.get(index) && !removed.get(index)) {
+                kept[keptCount++] = index;
+            }
+        }
+        return Arrays.copyOf(kept, keptCount);
+    }
+
+    /**
+     * Position of the row among the first count entries of the order, or -(insertion point) - 1 if
+     * it is not there. Rows never tie, as every order ends with the uid.
+     */
+    private static int position(int[] order, int count, int row, RowComparator comparator) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = comparator.compare(order[middle], row);
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void delete(int[] order, int count, int row, RowComparator comparator) {
+        int at = position(order, count, row, comparator);
+        System.arraycopy(order, at + 1, order, at, count - at - 1);
+    }
+
+    private static int[] insert(int[] order, int count, int row, RowComparator comparator) {
+        int at = -position(order, count, row, comparator) - 1;
+        int[] target = count < order.length ? order : Arrays.copyOf(order, Math.max(64, count + (count >> 1)));
+        System.arraycopy(target, at, target, at + 1, count - at);
+        target[at] = row;
+        return target;
+    }
+
+    private static int[] renumber(int[] order, int[] moved) {
+        if (moved != null) {
+            for (int i = 0; i < order.length; i++) {
+                order[i] = moved[order[i]];
+            }
+        }
+        return order;
+    }
+
+    private static int[] merge(int[] left, int[] right, RowComparator comparator) {
+        int[] merged = new int[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            merged[k++] = comparator.compare(left[i], right[j]) <= 0 ? left[i++] : right[j++];
+        }
+        while (i < left.length) {
+            merged[k++] = left[i++];
+        }
+        while (j < right.length) {
+            merged[k++] = right[j++];
+        }
+        return merged;
+    }
+
+    private static int[] sorted(int[] rows, RowComparator comparator) {
+        Integer[] boxed = new Integer[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            boxed[i] = rows[i];
+        }
+        Arrays.sort(boxed, comparator::compare);
+        int[] result = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            result[i] = boxed[i];
+        }
+        return result;
+    }
+
+    static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int a, int b);
+
+        default RowComparator then(RowComparator next) {
+            return (a, b) -> {
+                int result = compare(a, b);
+                return result != 0 ? result : next.compare(a, b);
+            };
+        }
+    }
+}
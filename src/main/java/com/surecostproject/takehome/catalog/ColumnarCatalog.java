@@ -0,0 +1,315 @@
+package com.surecostproject.takehome.catalog;
+
+import com.surecostproject.takehome.datasource.ReadRouting;
+import com.surecostproject.takehome.dto.DrugSearchCriteria;
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.event.DrugChangeEvent;
+import com.surecostproject.takehome.manufacturer.ManufacturerDictionary;
+import com.surecostproject.takehome.repository.DrugBatchRepository.DrugRow;
+import com.surecostproject.takehome.repository.DrugRepository;
+import com.surecostproject.takehome.search.SearchNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-process columnar copy of the drug table that answers every paged read of DrugService without
+ * a database round trip. Enabled with {@code drug.catalog.columnar.enabled}; it is loaded from the
+ * database once the application is ready, and DrugService stays on the database until then.
+ *
+ * <p>Every committed {@link DrugChangeEvent} is written through by reading the affected rows back from
+ * the primary, rather than copying the event's entities: set-based bulk updates never load the rows
+ * they write, so their entities carry neither the new version nor, for deletes, anything at all.
+ * Concurrent commits are grouped: one listener reads back and applies the ids of every commit that
+ * arrived while the previous group was being applied, and the others wait for that group instead of
+ * each taking a read transaction in turn. A reload waits for the group in flight, so a slower reload can
+ * never overwrite a newer one. The listener runs before the other after-commit listeners, so
+ * CatalogVersion only moves on once the catalog shows the change, and by the time a write returns its
+ * result can be read back here.
+ */
+@Slf4j
+@Component
+public class ColumnarCatalog {
+    private static final int LOAD_FETCH_SIZE = 5000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final Condition groupApplied = refreshLock.newCondition();
+    private final Set<UUID> changedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    private final DrugRepository drugRepository;
+    private final ManufacturerDictionary manufacturerDictionary;
+    private final ReadRouting readRouting;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate readTransaction;
+    private final boolean enabled;
+
+    // Guarded by lock
+    private CatalogColumns columns;
+    // Guarded by refreshLock: ids waiting for the next group, the number the next group will take,
+    // the last group applied and whether a group is being applied
+    private final Set<UUID> pending = new HashSet<>();
+    private long nextGroup = 1;
+    private long appliedGroup;
+    private boolean refreshing;
+    private boolean loading;
+    private volatile boolean ready;
+
+    public ColumnarCatalog(DrugRepository drugRepository,
+                           ManufacturerDictionary manufacturerDictionary,
+                           ReadRouting readRouting,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                           @Value("${drug.catalog.columnar.enabled:false}") boolean enabled) {
+        this.drugRepository = drugRepository;
+        this.manufacturerDictionary = manufacturerDictionary;
+        this.readRouting = readRouting;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        // Listeners run after the writer's commit, so rows are read back in a transaction of their own
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * True once the catalog reflects the database. Callers use the database until then.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * True if the catalog is ready and can order results as the pageable asks.
+     */
+    public boolean canServe(Pageable pageable) {
+        return ready && CatalogColumns.supports(pageable.getSort());
+    }
+
+    public Optional<DrugView> findById(UUID id) {
+        return read(columns -> Optional.ofNullable(columns.view(id)));
+    }
+
+    public Slice<DrugView> findAll(Pageable pageable, boolean countTotal) {
+        return read(columns -> columns.select(RowFilter.ALL, pageable, countTotal));
+    }
+
+    public Slice<DrugView> findByNameContaining(String normalizedName, Pageable pageable, boolean countTotal) {
+        return read(columns -> columns.select(
+                RowFilter.ALL.withNameCodes(columns.names().matching(normalizedName, false)), pageable, countTotal));
+    }
+
+    public Slice<DrugView> findByNameStartingWith(String normalizedPrefix, Pageable pageable, boolean countTotal) {
+        return read(columns -> columns.select(
+                RowFilter.ALL.withNameCodes(columns.names().matching(normalizedPrefix, true)), pageable, countTotal));
+    }
+
+    public Slice<DrugView> findByManufacturerIn(Collection<Integer> manufacturerIds, Pageable pageable, boolean countTotal) {
+        BitSet ids = new BitSet();
+        manufacturerIds.forEach(ids::set);
+        return read(columns -> columns.select(RowFilter.ALL.withManufacturerIds(ids), pageable, countTotal));
+    }
+
+    public Slice<DrugView> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable, boolean countTotal) {
+        return read(columns -> columns.select(RowFilter.ALL.withPriceBetween(minPrice, maxPrice), pageable, countTotal));
+    }
+
+    /**
+     * Composite search with the semantics of DrugSpecifications.matching.
+     *
+     * @param manufacturerId the id the criteria's manufacturer resolved to, or null to not filter by manufacturer
+     */
+    public Slice<DrugView> findMatching(DrugSearchCriteria criteria, Integer manufacturerId, Pageable pageable, boolean countTotal) {
+        RowFilter filter = RowFilter.ALL
+                .withPriceBetween(criteria.getMinPrice(), criteria.getMaxPrice())
+                .withMinQuantity(criteria.getMinQuantity());
+        if (manufacturerId != null) {
+            BitSet ids = new BitSet();
+            ids.set(manufacturerId);
+            filter = filter.withManufacturerIds(ids);
+        }
+        String name = criteria.getName() == null || criteria.getName().isBlank()
+                ? null
+                : SearchNormalizer.normalize(criteria.getName());
+        RowFilter withoutName = filter;
+        return read(columns -> columns.select(
+                name == null ? withoutName : withoutName.withNameCodes(columns.names().matching(name, false)),
+                pageable, countTotal));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            taskExecutor.execute(this::reload);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onDrugChange(DrugChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Set<UUID> ids = new HashSet<>(event.deleted());
+        for (Drug drug : event.upserted()) {
+            ids.add(drug.getUid());
+        }
+        refreshLock.lock();
+        try {
+            pending.addAll(ids);
+            long group = nextGroup;
+            while (appliedGroup < group) {
+                if (!ready) {
+                    if (loading) {
+                        changedDuringLoad.addAll(pending);
+                    }
+                    pending.clear();
+                    return;
+                }
+                if (refreshing) {
+                    groupApplied.awaitUninterruptibly();
+                } else {
+                    applyGroup();
+                }
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Applies every pending id as one group, reading them back outside refreshLock so later commits
+     * can join the next group meanwhile. Called and returns with refreshLock held.
+     */
+    private void applyGroup() {
+        Set<UUID> ids = new HashSet<>(pending);
+        pending.clear();
+        long group = nextGroup++;
+        refreshing = true;
+        refreshLock.unlock();
+        try {
+            refresh(ids);
+        } catch (RuntimeException e) {
+            // The change cannot be shown, so reads go back to the database until a full reload
+            ready = false;
+            log.error("Columnar catalog could not apply a change, reloading it", e);
+            taskExecutor.execute(this::reload);
+        } finally {
+            refreshLock.lock();
+            refreshing = false;
+            appliedGroup = group;
+            groupApplied.signalAll();
+        }
+    }
+
+    /**
+     * Reloads the catalog from the primary. Reads are served by the database while this runs.
+     * Rows changed while the table is being read are read again afterwards, so a row read before
+     * a concurrent commit cannot stay behind.
+     */
+    public void reload() {
+        readRouting.runOnPrimary(this::load);
+    }
+
+    private void load() {
+        refreshLock.lock();
+        try {
+            while (refreshing) {
+                groupApplied.awaitUninterruptibly();
+            }
+            ready = false;
+            loading = true;
+        } finally {
+            refreshLock.unlock();
+        }
+
+        try {
+            long start = System.nanoTime();
+            CatalogColumns loaded = new CatalogColumns(manufacturerDictionary::nameOf);
+            drugRepository.forEachRow(LOAD_FETCH_SIZE, loaded::append);
+            loaded.sortOrders();
+
+            refreshLock.lock();
+            try {
+                write(loaded);
+                while (!changedDuringLoad.isEmpty()) {
+                    Set<UUID> changed = new HashSet<>(changedDuringLoad);
+                    changedDuringLoad.removeAll(changed);
+                    refresh(changed);
+                }
+                loading = false;
+                ready = true;
+            } finally {
+                refreshLock.unlock();
+            }
+            log.info("Columnar catalog loaded with {} drugs in {} ms",
+                    loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            refreshLock.lock();
+            try {
+                loading = false;
+            } finally {
+                refreshLock.unlock();
+            }
+            log.error("Columnar catalog load failed, reads stay on the database", e);
+        }
+    }
+
+    private void refresh(Set<UUID> ids) {
+        List<DrugRow> found = readRouting.readFromPrimary(
+                () -> readTransaction.execute(status -> drugRepository.findRows(ids)));
+        Set<UUID> missing = new HashSet<>(ids);
+        found.forEach(row -> missing.remove(row.uid()));
+        lock.writeLock().lock();
+        try {
+            columns.apply(found, missing);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(CatalogColumns loaded) {
+        lock.writeLock().lock();
+        try {
+            columns = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T read(Function<CatalogColumns, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.surecostproject.takehome.catalog;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary encoding of drug names for {@link ColumnarCatalog}. Each distinct name is stored once,
+ * with its normalized search form, and rows hold its int code. Codes are reference counted and reused
+ * once no row holds them, so renames and deletes do not grow the dictionary. Not thread-safe; the
+ * catalog guards it with its own lock.
+ */
+class NameDictionary {
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] names = new String[64];
+    private String[] searchForms = new String[64];
+    private int[] references = new int[64];
+    private int[] freeCodes = new int[16];
+    private int freeCount;
+    private int size;
+
+    /**
+     * Returns the code of the name, adding it if needed, and counts one more row holding it.
+     */
+    int acquire(String name, String searchForm) {
+        Integer code = codes.get(name);
+        if (code == null) {
+            code = freeCount > 0 ? freeCodes[--freeCount] : size++;
+            if (code == names.length) {
+                int capacity = names.length * 2;
+                names = Arrays.copyOf(names, capacity);
+                searchForms = Arrays.copyOf(searchForms, capacity);
+                references = Arrays.copyOf(references, capacity);
+            }
+            names[code] = name;
+            searchForms[code] = searchForm;
+            codes.put(name, code);
+        }
+        references[code]++;
+        return code;
+    }
+
+    /**
+     * Counts one row less holding the code, and frees it once none does.
+     */
+    void release(int code) {
+        if (--references[code] > 0) {
+            return;
+        }
+        codes.remove(names[code]);
+        names[code] = null;
+        searchForms[code] = null;
+        if (freeCount == freeCodes.length) {
+            freeCodes = Arrays.copyOf(freeCodes, freeCount * 2);
+        }
+        freeCodes[freeCount++] = code;
+    }
+
+    String name(int code) {
+        return names[code];
+    }
+
+    String searchForm(int code) {
+        return searchForms[code];
+    }
+
+    /**
+     * Marks the codes whose search form contains the normalized term, or starts with it, testing each
+     * distinct name once instead of once per row.
+     */
+    boolean[] matching(String normalizedTerm, boolean prefix) {
+        boolean[] matches = new boolean[size];
+        for (int code = 0; code < size; code++) {
+            String searchForm = searchForms[code];
+            if (searchForm != null) {
+                matches[code] = prefix ? searchForm.startsWith(normalizedTerm) : searchForm.contains(normalizedTerm);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,55 @@
+package com.surecostproject.takehome.catalog;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.BitSet;
+
+/**
+ * Predicates of a catalog query over the columns of {@link CatalogColumns}. Absent filters are
+ * null or the widest bound, so every row passes them.
+ *
+ * @param nameCodes       name dictionary codes that match, indexed by code, or null for any name
+ * @param manufacturerIds manufacturer ids to keep, or null for any manufacturer
+ * @param minCents        inclusive lower price bound in cents
+ * @param maxCents        inclusive upper price bound in cents
+ * @param minQuantity     inclusive lower quantity bound
+ */
+record RowFilter(boolean[] nameCodes, BitSet manufacturerIds, long minCents, long maxCents, int minQuantity) {
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    static final RowFilter ALL = new RowFilter(null, null, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE);
+
+    boolean isUnfiltered() {
+        return filtersOnlyPrice() && minCents == Long.MIN_VALUE && maxCents == Long.MAX_VALUE;
+    }
+
+    boolean filtersOnlyPrice() {
+        return nameCodes == null && manufacturerIds == null && minQuantity == Integer.MIN_VALUE;
+    }
+
+    RowFilter withNameCodes(boolean[] codes) {
+        return new RowFilter(codes, manufacturerIds, minCents, maxCents, minQuantity);
+    }
+
+    RowFilter withManufacturerIds(BitSet ids) {
+        return new RowFilter(nameCodes, ids, minCents, maxCents, minQuantity);
+    }
+
+    // A bound between two cents only admits the whole cents on its side of it
+    RowFilter withPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return new RowFilter(nameCodes, manufacturerIds,
+                minPrice == null ? minCents : cents(minPrice, RoundingMode.CEILING),
+                maxPrice == null ? maxCents : cents(maxPrice, RoundingMode.FLOOR),
+                minQuantity);
+    }
+
+    RowFilter withMinQuantity(Integer quantity) {
+        return quantity == null ? this : new RowFilter(nameCodes, manufacturerIds, minCents, maxCents, quantity);
+    }
+
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, rounding);
+        return cents.max(MIN_CENTS).min(MAX_CENTS).longValue();
+    }
+}
@@ -0,0 +1,207 @@
+package com.surecostproject.takehome.config;
+
+import com.surecostproject.takehome.exception.MalformedRequestBodyException;
+import com.surecostproject.takehome.exception.RequestBodyTooLargeException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates request bodies sent with {@code Content-Encoding: gzip}, so clients can compress bulk
+ * uploads and imports. The body is decompressed as it is read rather than buffered. Reading fails
+ * with a {@link RequestBodyTooLargeException} (413) once the inflated size passes
+ * {@code drug.compression.max-inflated-request-size}, and with a {@link MalformedRequestBodyException}
+ * (400) if the body is not valid gzip.
+ * Response compression is left to the servlet container ({@code server.compression.*}).
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class GzipRequestFilter extends OncePerRequestFilter {
+    private static final String GZIP = "gzip";
+
+    private final long maxInflatedBytes;
+
+    public GzipRequestFilter(@Value("${drug.compression.max-inflated-request-size:512MB}") DataSize maxInflatedSize) {
+        this.maxInflatedBytes = maxInflatedSize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        return encoding == null || !encoding.trim().equalsIgnoreCase(GZIP);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(new InflatingRequest(request, maxInflatedBytes), response);
+    }
+
+    // Hides the encoding and the compressed length, which no longer describe the body handed on
+    private static final class InflatingRequest extends HttpServletRequestWrapper {
+        private final long maxInflatedBytes;
+        private ServletInputStream stream;
+        private BufferedReader reader;
+
+        private InflatingRequest(HttpServletRequest request, long maxInflatedBytes) {
+            super(request);
+            this.maxInflatedBytes = maxInflatedBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                stream = new InflatingInputStream(inflate(super.getInputStream()), maxInflatedBytes);
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isHidden(name))
+                    .toList());
+        }
+
+        // The constructor reads the gzip header
+        private static GZIPInputStream inflate(ServletInputStream compressed) throws IOException {
+            try {
+                return new GZIPInputStream(compressed, 8192);
+            } catch (ZipException | EOFException e) {
+                throw malformed(e);
+            }
+        }
+
+        private static boolean isHidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    private static final class InflatingInputStream extends ServletInputStream {
+        private final GZIPInputStream delegate;
+        private final long maxInflatedBytes;
+        private long inflated;
+        private boolean finished;
+
+        private InflatingInputStream(GZIPInputStream delegate, long maxInflatedBytes) {
+            this.delegate = delegate;
+            this.maxInflatedBytes = maxInflatedBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = delegate.read();
+            } catch (ZipException | EOFException e) {
+                throw malformed(e);
+            }
+            if (b < 0) {
+                finished = true;
+            } else {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read;
+            try {
+                read = delegate.read(buffer, offset, length);
+            } catch (ZipException | EOFException e) {
+                throw malformed(e);
+            }
+            if (read < 0) {
+                finished = true;
+            } else {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            throw new UnsupportedOperationException("Non-blocking reads of compressed request bodies are not supported");
+        }
+
+        private void count(int bytes) throws IOException {
+            inflated += bytes;
+            if (inflated > maxInflatedBytes) {
+                throw new RequestBodyTooLargeException("Decompressed request body exceeds " + maxInflatedBytes + " bytes");
+            }
+        }
+    }
+
+    // Corrupt or truncated data, or a body that was never gzip
+    private static MalformedRequestBodyException malformed(IOException e) {
+        return new MalformedRequestBodyException("Request body is not valid gzip: " + e.getMessage());
+    }
+}
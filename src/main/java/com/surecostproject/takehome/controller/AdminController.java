@@ -0,0 +1,26 @@
+package com.surecostproject.takehome.controller;
+
+import com.surecostproject.takehome.cache.DrugCache;
+import com.surecostproject.takehome.dto.CacheStatsDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "Administration", description = "Operational insight into the drug service")
+public class AdminController {
+
+    private final DrugCache drugCache;
+
+    @GetMapping("/cache/drugs")
+    @Operation(summary = "Get hit, miss and eviction statistics of the drug lookup cache")
+    public ResponseEntity<CacheStatsDTO> getDrugCacheStats() {
+        return ResponseEntity.ok(drugCache.stats());
+    }
+}
@@ -1,10 +1,28 @@
 package com.surecostproject.takehome.controller;
 
+import com.surecostproject.takehome.cache.CatalogVersion;
 import com.surecostproject.takehome.dto.BulkDrugDTO;
+import com.surecostproject.takehome.dto.BulkImportSummaryDTO;
+import com.surecostproject.takehome.dto.BulkPartialResultDTO;
+import com.surecostproject.takehome.dto.CursorPageDTO;
 import com.surecostproject.takehome.dto.DrugDTO;
+import com.surecostproject.takehome.dto.DrugPageDTO;
+import com.surecostproject.takehome.dto.DrugSearchCriteria;
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.dto.InventoryAdjustmentDTO;
+import com.surecostproject.takehome.dto.QuantityAdjustmentDTO;
 import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.exception.InvalidDrugRequestException;
+import com.surecostproject.takehome.inventory.InventoryService;
+import com.surecostproject.takehome.mapper.DrugCursorCodec;
+import com.surecostproject.takehome.mapper.DrugCursorCodec.DrugCursor;
 import com.surecostproject.takehome.mapper.DrugMapper;
+import com.surecostproject.takehome.service.DrugExportService;
+import com.surecostproject.takehome.service.DrugExportService.ExportFormat;
+import com.surecostproject.takehome.service.DrugImportService;
+import com.surecostproject.takehome.service.DrugPartialBulkService;
 import com.surecostproject.takehome.service.DrugService;
+import com.surecostproject.takehome.service.DrugService.SearchMatch;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,14 +31,24 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/drugs")
@@ -28,35 +56,77 @@ import java.util.UUID;
 @Tag(name = "Drug Management", description = "APIs for managing drug inventory")
 public class DrugController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String SMILE_SUBTYPE = "smile";
+    private static final String CBOR_SUBTYPE = "cbor";
+    private static final Pattern DRUG_ETAG = Pattern.compile("\"(\\d{1,18})(?:-(?:smile|cbor))?\"");
+    private static final List<String> SEARCH_SORT_PROPERTIES = List.of("name", "manufacturerName", "quantity", "price");
+
     private final DrugService drugService;
+    private final DrugImportService drugImportService;
+    private final DrugPartialBulkService drugPartialBulkService;
+    private final DrugExportService drugExportService;
+    private final InventoryService inventoryService;
     private final DrugMapper drugMapper;
+    private final DrugCursorCodec drugCursorCodec;
+    private final CatalogVersion catalogVersion;
 
     @GetMapping
     @Operation(summary = "Get all drugs with pagination")
-    public ResponseEntity<Page<DrugDTO>> getAllDrugs(
+    public ResponseEntity<DrugPageDTO> getAllDrugs(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "asc") String direction) {
+            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Whether to count all matching drugs; false skips the count query") @RequestParam(defaultValue = "true") boolean includeTotal,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
         Sort.Direction sortDirection = Sort.Direction.fromString(direction.toUpperCase());
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        Page<Drug> drugs = drugService.getAllDrugs(pageable);
-        return ResponseEntity.ok(drugs.map(drugMapper::toDTO));
+        return ResponseEntity.ok(toPage(drugService.getAllDrugs(pageable, includeTotal)));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get all drugs with keyset (cursor) pagination")
+    public ResponseEntity<CursorPageDTO<DrugDTO>> scrollAllDrugs(
+            @Parameter(description = "Cursor from the previous slice; omit for the first slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per slice") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field, ignored when a cursor is given") @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction (asc/desc), ignored when a cursor is given") @RequestParam(defaultValue = "asc") String direction) {
+        DrugCursor position = drugCursorCodec.resolve(cursor, sortBy, direction);
+        Window<Drug> drugs = drugService.scrollAllDrugs(position.position(), size, position.sort());
+        return ResponseEntity.ok(toCursorPage(drugs, position));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream the full catalog as NDJSON, CSV, Smile or CBOR")
+    public ResponseEntity<StreamingResponseBody> exportDrugs(
+            @Parameter(description = "Export format (ndjson/csv/smile/cbor)") @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = parseExportFormat(format);
+        StreamingResponseBody body = out -> drugExportService.exportDrugs(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .body(body);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get drug by ID")
-    public ResponseEntity<DrugDTO> getDrugById(@PathVariable UUID id) {
-        Drug drug = drugService.getDrugById(id);
-        return ResponseEntity.ok(drugMapper.toDTO(drug));
+    public ResponseEntity<DrugView> getDrugById(@PathVariable UUID id, WebRequest webRequest) {
+        DrugView drug = drugService.getDrugById(id);
+        // A matching If-None-Match is answered with 304 before the body is written
+        return ResponseEntity.ok().eTag(representationTag(Long.toString(drug.version()), webRequest)).body(drug);
     }
 
     @PostMapping
     @Operation(summary = "Create new drug")
-    public ResponseEntity<DrugDTO> createDrug(@Valid @RequestBody DrugDTO drugDTO) {
+    public ResponseEntity<DrugDTO> createDrug(@Valid @RequestBody DrugDTO drugDTO, WebRequest webRequest) {
         Drug drug = drugMapper.toEntity(drugDTO);
         Drug createdDrug = drugService.createDrug(drug);
-        return new ResponseEntity<>(drugMapper.toDTO(createdDrug), HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(representationTag(Long.toString(createdDrug.getVersion()), webRequest))
+                .body(drugMapper.toDTO(createdDrug));
     }
 
     @PostMapping("/bulk")
@@ -67,12 +137,33 @@ public class DrugController {
         return new ResponseEntity<>(drugMapper.toDTOList(createdDrugs), HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk/partial")
+    @Operation(summary = "Create multiple drugs, committing valid rows in chunks and reporting failed rows")
+    public ResponseEntity<BulkPartialResultDTO> createBulkDrugsPartial(@RequestBody BulkDrugDTO bulkDrugDTO) {
+        BulkPartialResultDTO result = drugPartialBulkService.createBulkDrugs(toPartialBulkEntities(bulkDrugDTO));
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/bulk/stream", consumes = {APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Stream-import drugs from an NDJSON body or a JSON array, persisted in chunks")
+    public ResponseEntity<BulkImportSummaryDTO> importDrugs(InputStream body) throws IOException {
+        BulkImportSummaryDTO summary = drugImportService.importDrugs(body);
+        return new ResponseEntity<>(summary, HttpStatus.CREATED);
+    }
+
     @PutMapping("/{id}")
-    @Operation(summary = "Update existing drug")
-    public ResponseEntity<DrugDTO> updateDrug(@PathVariable UUID id, @Valid @RequestBody DrugDTO drugDTO) {
+    @Operation(summary = "Update existing drug, optionally only if it is still at the version given in If-Match")
+    public ResponseEntity<DrugDTO> updateDrug(
+            @PathVariable UUID id,
+            @Valid @RequestBody DrugDTO drugDTO,
+            @Parameter(description = "ETag of the version being replaced; the update fails with 412 if the drug has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            WebRequest webRequest) {
         Drug drug = drugMapper.toEntity(drugDTO);
-        Drug updatedDrug = drugService.updateDrug(id, drug);
-        return ResponseEntity.ok(drugMapper.toDTO(updatedDrug));
+        Drug updatedDrug = drugService.updateDrug(id, drug, parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(representationTag(Long.toString(updatedDrug.getVersion()), webRequest))
+                .body(drugMapper.toDTO(updatedDrug));
     }
 
     @PutMapping("/bulk")
@@ -83,6 +174,20 @@ public class DrugController {
         return ResponseEntity.ok(drugMapper.toDTOList(updatedDrugs));
     }
 
+    @PutMapping("/bulk/partial")
+    @Operation(summary = "Update multiple drugs, committing valid rows in chunks and reporting failed rows")
+    public ResponseEntity<BulkPartialResultDTO> updateBulkDrugsPartial(@RequestBody BulkDrugDTO bulkDrugDTO) {
+        BulkPartialResultDTO result = drugPartialBulkService.updateBulkDrugs(toPartialBulkEntities(bulkDrugDTO));
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/{id}/quantity/adjustments")
+    @Operation(summary = "Atomically add to or remove from the quantity of a drug")
+    public ResponseEntity<InventoryAdjustmentDTO> adjustQuantity(@PathVariable UUID id,
+                                                                 @Valid @RequestBody QuantityAdjustmentDTO adjustment) {
+        return ResponseEntity.ok(inventoryService.adjustQuantity(id, adjustment.getDelta()));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete drug")
     public ResponseEntity<Void> deleteDrug(@PathVariable UUID id) {
@@ -97,37 +202,208 @@ public class DrugController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search drugs by any combination of name, manufacturer, price range and minimum quantity")
+    public ResponseEntity<DrugPageDTO> searchDrugs(
+            @Parameter(description = "Substring of the drug name, ignoring case and accents") @RequestParam(required = false) String name,
+            @Parameter(description = "Manufacturer name, ignoring case and accents") @RequestParam(required = false) String manufacturer,
+            @Parameter(description = "Minimum price, inclusive") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price, inclusive") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Minimum quantity in stock, inclusive; 1 for in-stock drugs") @RequestParam(required = false) Integer minQuantity,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field (name/manufacturerName/quantity/price); results are ordered by name when omitted") @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Whether to count all matching drugs; false skips the count query") @RequestParam(defaultValue = "true") boolean includeTotal,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+        DrugSearchCriteria criteria = DrugSearchCriteria.builder()
+                .name(name)
+                .manufacturer(manufacturer)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minQuantity(minQuantity)
+                .build();
+        Pageable pageable = PageRequest.of(page, size, searchSort(sortBy, direction));
+        return ResponseEntity.ok(toPage(drugService.searchDrugs(criteria, pageable, includeTotal)));
+    }
+
     @GetMapping("/search/name")
     @Operation(summary = "Search drugs by name with pagination")
-    public ResponseEntity<Page<DrugDTO>> searchByName(
+    public ResponseEntity<DrugPageDTO> searchByName(
             @Parameter(description = "Drug name to search for") @RequestParam String name,
+            @Parameter(description = "Match anywhere in the name (contains) or at its start (prefix)") @RequestParam(defaultValue = "contains") String match,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Whether to count all matching drugs; false skips the count query") @RequestParam(defaultValue = "true") boolean includeTotal,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<Drug> drugs = drugService.searchByName(name, pageable);
-        return ResponseEntity.ok(drugs.map(drugMapper::toDTO));
+        return ResponseEntity.ok(toPage(drugService.searchByName(name, parseSearchMatch(match), pageable, includeTotal)));
     }
 
     @GetMapping("/search/manufacturer")
     @Operation(summary = "Search drugs by manufacturer with pagination")
-    public ResponseEntity<Page<DrugDTO>> searchByManufacturer(
+    public ResponseEntity<DrugPageDTO> searchByManufacturer(
             @Parameter(description = "Manufacturer name to search for") @RequestParam String manufacturer,
+            @Parameter(description = "Match anywhere in the name (contains) or at its start (prefix)") @RequestParam(defaultValue = "contains") String match,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Whether to count all matching drugs; false skips the count query") @RequestParam(defaultValue = "true") boolean includeTotal,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<Drug> drugs = drugService.searchByManufacturer(manufacturer, pageable);
-        return ResponseEntity.ok(drugs.map(drugMapper::toDTO));
+        return ResponseEntity.ok(toPage(drugService.searchByManufacturer(manufacturer, parseSearchMatch(match), pageable, includeTotal)));
     }
 
     @GetMapping("/search/price-range")
     @Operation(summary = "Search drugs by price range with pagination")
-    public ResponseEntity<Page<DrugDTO>> searchByPriceRange(
+    public ResponseEntity<DrugPageDTO> searchByPriceRange(
             @Parameter(description = "Minimum price") @RequestParam BigDecimal minPrice,
             @Parameter(description = "Maximum price") @RequestParam BigDecimal maxPrice,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Whether to count all matching drugs; false skips the count query") @RequestParam(defaultValue = "true") boolean includeTotal,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<Drug> drugs = drugService.searchByPriceRange(minPrice, maxPrice, pageable);
-        return ResponseEntity.ok(drugs.map(drugMapper::toDTO));
+        return ResponseEntity.ok(toPage(drugService.searchByPriceRange(minPrice, maxPrice, pageable, includeTotal)));
+    }
+
+    @GetMapping("/search/name/scroll")
+    @Operation(summary = "Search drugs by name with keyset (cursor) pagination")
+    public ResponseEntity<CursorPageDTO<DrugDTO>> scrollByName(
+            @Parameter(description = "Drug name to search for") @RequestParam String name,
+            @Parameter(description = "Cursor from the previous slice; omit for the first slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per slice") @RequestParam(defaultValue = "20") int size) {
+        DrugCursor position = drugCursorCodec.resolve(cursor, "name", "asc");
+        Window<Drug> drugs = drugService.scrollByName(name, position.position(), size, position.sort());
+        return ResponseEntity.ok(toCursorPage(drugs, position));
+    }
+
+    @GetMapping("/search/manufacturer/scroll")
+    @Operation(summary = "Search drugs by manufacturer with keyset (cursor) pagination")
+    public ResponseEntity<CursorPageDTO<DrugDTO>> scrollByManufacturer(
+            @Parameter(description = "Manufacturer name to search for") @RequestParam String manufacturer,
+            @Parameter(description = "Cursor from the previous slice; omit for the first slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per slice") @RequestParam(defaultValue = "20") int size) {
+        DrugCursor position = drugCursorCodec.resolve(cursor, "name", "asc");
+        Window<Drug> drugs = drugService.scrollByManufacturer(manufacturer, position.position(), size, position.sort());
+        return ResponseEntity.ok(toCursorPage(drugs, position));
+    }
+
+    @GetMapping("/search/price-range/scroll")
+    @Operation(summary = "Search drugs by price range with keyset (cursor) pagination, ordered by price")
+    public ResponseEntity<CursorPageDTO<DrugDTO>> scrollByPriceRange(
+            @Parameter(description = "Minimum price") @RequestParam BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam BigDecimal maxPrice,
+            @Parameter(description = "Cursor from the previous slice; omit for the first slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per slice") @RequestParam(defaultValue = "20") int size) {
+        DrugCursor position = drugCursorCodec.resolve(cursor, "price", "asc");
+        Window<Drug> drugs = drugService.scrollByPriceRange(minPrice, maxPrice, position.position(), size, position.sort());
+        return ResponseEntity.ok(toCursorPage(drugs, position));
+    }
+
+    // Rows are validated individually by the service, so one invalid row must not reject the request
+    private List<Drug> toPartialBulkEntities(BulkDrugDTO bulkDrugDTO) {
+        if (bulkDrugDTO.getDrugs() == null || bulkDrugDTO.getDrugs().isEmpty()) {
+            throw new InvalidDrugRequestException("Drug list cannot be empty");
+        }
+        return drugMapper.toEntityList(bulkDrugDTO.getDrugs());
+    }
+
+    // Checked before the query runs, so a matching If-None-Match costs neither the rows nor a body.
+    // Page tags are weak: Tomcat does not compress responses carrying a strong ETag
+    // Untagged pages are sent in full and not cached by clients
+    private boolean catalogNotModified(WebRequest webRequest) {
+        String etag = catalogVersion.etag();
+        if (etag == null) {
+            return false;
+        }
+        return webRequest.checkNotModified("W/\"" + representationTag(etag, webRequest) + "\"");
+    }
+
+    // The binary encodings of a drug or page are separate representations, so they get their own strong tags
+    private static String representationTag(String tag, WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return tag;
+        }
+        if (accept.contains(SMILE_SUBTYPE)) {
+            return tag + "-" + SMILE_SUBTYPE;
+        }
+        if (accept.contains(CBOR_SUBTYPE)) {
+            return tag + "-" + CBOR_SUBTYPE;
+        }
+        return tag;
+    }
+
+    // Drug ETags are the quoted row version; * matches any existing version
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Matcher tag = DRUG_ETAG.matcher(ifMatch.trim());
+        if (!tag.matches()) {
+            throw new InvalidDrugRequestException("If-Match must be a single drug ETag, such as \"3\"");
+        }
+        return Long.parseLong(tag.group(1));
+    }
+
+    private static Sort searchSort(String sortBy, String direction) {
+        if (sortBy == null) {
+            return Sort.unsorted();
+        }
+        if (!SEARCH_SORT_PROPERTIES.contains(sortBy)) {
+            throw new InvalidDrugRequestException("Search supports sorting by " + SEARCH_SORT_PROPERTIES);
+        }
+        return Sort.by(Sort.Direction.fromString(direction.toUpperCase()), sortBy).and(Sort.by("uid"));
+    }
+
+    private static SearchMatch parseSearchMatch(String match) {
+        try {
+            return SearchMatch.valueOf(match.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDrugRequestException("Match must be contains or prefix");
+        }
+    }
+
+    private static ExportFormat parseExportFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDrugRequestException("Export format must be ndjson, csv, smile or cbor");
+        }
+    }
+
+    // A Slice carries no total, so totalElements is only written for a counted Page
+    private static DrugPageDTO toPage(Slice<DrugView> drugs) {
+        return DrugPageDTO.builder()
+                .content(drugs.getContent())
+                .page(drugs.getNumber())
+                .size(drugs.getSize())
+                .hasNext(drugs.hasNext())
+                .totalElements(drugs instanceof Page<DrugView> page ? page.getTotalElements() : null)
+                .build();
+    }
+
+    private CursorPageDTO<DrugDTO> toCursorPage(Window<Drug> drugs, DrugCursor position) {
+        String nextCursor = drugs.hasNext()
+                ? drugCursorCodec.encode(position.sort(), drugs.positionAt(drugs.size() - 1))
+                : null;
+        return CursorPageDTO.<DrugDTO>builder()
+                .content(drugs.map(drugMapper::toDTO).getContent())
+                .size(drugs.size())
+                .hasNext(drugs.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
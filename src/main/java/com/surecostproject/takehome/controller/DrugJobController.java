@@ -0,0 +1,60 @@
+package com.surecostproject.takehome.controller;
+
+import com.surecostproject.takehome.dto.BulkDrugDTO;
+import com.surecostproject.takehome.dto.BulkJobDTO;
+import com.surecostproject.takehome.job.BulkJobOperation;
+import com.surecostproject.takehome.job.BulkJobService;
+import com.surecostproject.takehome.mapper.DrugMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/drugs/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Drug Bulk Jobs", description = "Asynchronous bulk operations processed in chunks")
+public class DrugJobController {
+
+    private final BulkJobService bulkJobService;
+    private final DrugMapper drugMapper;
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Submit a background job that creates multiple drugs")
+    public ResponseEntity<BulkJobDTO> submitBulkCreate(@Valid @RequestBody BulkDrugDTO bulkDrugDTO) {
+        return accepted(bulkJobService.submitDrugs(BulkJobOperation.CREATE, drugMapper.toEntityList(bulkDrugDTO.getDrugs())));
+    }
+
+    @PutMapping("/bulk")
+    @Operation(summary = "Submit a background job that updates multiple drugs")
+    public ResponseEntity<BulkJobDTO> submitBulkUpdate(@Valid @RequestBody BulkDrugDTO bulkDrugDTO) {
+        return accepted(bulkJobService.submitDrugs(BulkJobOperation.UPDATE, drugMapper.toEntityList(bulkDrugDTO.getDrugs())));
+    }
+
+    @DeleteMapping("/bulk")
+    @Operation(summary = "Submit a background job that deletes multiple drugs")
+    public ResponseEntity<BulkJobDTO> submitBulkDelete(@RequestBody List<UUID> ids) {
+        return accepted(bulkJobService.submitDeletion(ids));
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get progress, throughput and errors of a bulk job")
+    public ResponseEntity<BulkJobDTO> getJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(bulkJobService.getJob(jobId));
+    }
+
+    private ResponseEntity<BulkJobDTO> accepted(BulkJobDTO job) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/drugs/jobs/{jobId}")
+                .buildAndExpand(job.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+}
@@ -0,0 +1,62 @@
+package com.surecostproject.takehome.controller;
+
+import com.surecostproject.takehome.dto.ManufacturerInventoryDTO;
+import com.surecostproject.takehome.dto.ManufacturerInventoryPageDTO;
+import com.surecostproject.takehome.exception.InvalidDrugRequestException;
+import com.surecostproject.takehome.inventory.ManufacturerInventoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/manufacturers")
+@RequiredArgsConstructor
+@Tag(name = "Manufacturers", description = "Inventory totals per manufacturer")
+public class ManufacturerController {
+
+    private static final List<String> INVENTORY_SORT_PROPERTIES = List.of("name", "drugCount", "totalUnits", "stockValue");
+
+    private final ManufacturerInventoryService manufacturerInventoryService;
+
+    @GetMapping("/inventory")
+    @Operation(summary = "Get drug count, total units and stock value of every manufacturer, with pagination")
+    public ResponseEntity<ManufacturerInventoryPageDTO> getInventories(
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field (name/drugCount/totalUnits/stockValue)") @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "asc") String direction) {
+        if (!INVENTORY_SORT_PROPERTIES.contains(sortBy)) {
+            throw new InvalidDrugRequestException("Manufacturer inventory can be sorted by " + INVENTORY_SORT_PROPERTIES);
+        }
+        Sort sort = Sort.by(Sort.Direction.fromString(direction.toUpperCase()), sortBy).and(Sort.by("id"));
+        return ResponseEntity.ok(toPage(manufacturerInventoryService.getInventories(PageRequest.of(page, size, sort))));
+    }
+
+    @GetMapping("/inventory/by-name")
+    @Operation(summary = "Get drug count, total units and stock value of one manufacturer")
+    public ResponseEntity<ManufacturerInventoryDTO> getInventory(
+            @Parameter(description = "Manufacturer name, ignoring case, accents and extra whitespace") @RequestParam String manufacturer) {
+        return ResponseEntity.ok(manufacturerInventoryService.getInventory(manufacturer));
+    }
+
+    private static ManufacturerInventoryPageDTO toPage(Page<ManufacturerInventoryDTO> inventories) {
+        return ManufacturerInventoryPageDTO.builder()
+                .content(inventories.getContent())
+                .page(inventories.getNumber())
+                .size(inventories.getSize())
+                .hasNext(inventories.hasNext())
+                .totalElements(inventories.getTotalElements())
+                .build();
+    }
+}
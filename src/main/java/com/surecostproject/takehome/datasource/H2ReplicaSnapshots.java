@@ -0,0 +1,83 @@
+package com.surecostproject.takehome.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local stand-in for replication when the replicas are separate in-memory H2 databases: the primary is
+ * copied into every database in {@code drug.datasource.replica-urls} once its schema exists, and again
+ * every {@code drug.datasource.replica-snapshot-interval}, so replicas have the primary's schema but lag
+ * its data by up to the interval, as streaming replicas lag by their replication delay. Not for real replicas.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty({"drug.datasource.replica-urls", "drug.datasource.replica-snapshot-interval"})
+public class H2ReplicaSnapshots {
+
+    private final HikariDataSource primaryDataSource;
+    private final List<String> replicaUrls;
+    private final String username;
+    private final String password;
+
+    // The entity manager factory is only a dependency so that Hibernate has created the schema first
+    public H2ReplicaSnapshots(HikariDataSource primaryDataSource,
+                              DataSourceProperties properties,
+                              EntityManagerFactory entityManagerFactory,
+                              @Value("${drug.datasource.replica-urls}") List<String> replicaUrls) {
+        this.primaryDataSource = primaryDataSource;
+        this.replicaUrls = replicaUrls;
+        this.username = properties.determineUsername();
+        this.password = properties.determinePassword();
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${drug.datasource.replica-snapshot-interval}",
+            fixedDelayString = "${drug.datasource.replica-snapshot-interval}")
+    public void copyPrimary() {
+        List<String> script = script();
+        for (String url : replicaUrls) {
+            try (Connection connection = DriverManager.getConnection(url, username, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                for (String sql : script) {
+                    statement.execute(sql);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not copy the primary into replica " + url, e);
+            }
+        }
+        log.debug("Copied {} statements of the primary into {} replicas", script.size(), replicaUrls.size());
+    }
+
+    private List<String> script() {
+        List<String> script = new ArrayList<>();
+        try (Connection connection = primaryDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SCRIPT NOPASSWORDS")) {
+            while (rows.next()) {
+                String sql = rows.getString(1);
+                if (!sql.startsWith("--")) {
+                    script.add(sql);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not script the primary database", e);
+        }
+        return script;
+    }
+}
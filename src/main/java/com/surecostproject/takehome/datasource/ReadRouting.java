@@ -0,0 +1,86 @@
+package com.surecostproject.takehome.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Decides whether reads on the current thread may go to a replica. Read-only transactions use a
+ * replica unless the thread is pinned to the primary, which happens for the requests of a client
+ * that wrote within {@code drug.datasource.read-your-writes-window} (see {@link ReadYourWritesFilter})
+ * and for reads whose result outlives the transaction, such as cache fills and index rebuilds,
+ * which must not keep a row a lagging replica has not caught up on.
+ *
+ * <p>Without {@code drug.datasource.replica-urls} everything reads from the primary.
+ */
+@Component
+public class ReadRouting {
+
+    private final boolean replicasEnabled;
+    private final Duration readYourWritesWindow;
+    private final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+
+    public ReadRouting(@Value("${drug.datasource.replica-urls:}") List<String> replicaUrls,
+                       @Value("${drug.datasource.read-your-writes-window:PT2S}") Duration readYourWritesWindow) {
+        this.replicasEnabled = !replicaUrls.isEmpty();
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public boolean replicasEnabled() {
+        return replicasEnabled;
+    }
+
+    public Duration readYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public boolean pinnedToPrimary() {
+        return pinnedToPrimary.get() != null;
+    }
+
+    // Whether a read in the current transaction is served by a replica, which may lag the primary
+    public boolean readsFromReplica() {
+        return replicasEnabled
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !pinnedToPrimary();
+    }
+
+    /**
+     * Runs the reads against the primary. Transactions must start inside the block, since the
+     * connection is chosen when a transaction runs its first statement.
+     */
+    public <T> T readFromPrimary(Supplier<T> reads) {
+        boolean pinned = pin();
+        try {
+            return reads.get();
+        } finally {
+            if (pinned) {
+                unpin();
+            }
+        }
+    }
+
+    public void runOnPrimary(Runnable reads) {
+        readFromPrimary(() -> {
+            reads.run();
+            return null;
+        });
+    }
+
+    // Pins the thread to the primary; returns false if it already was, in which case the caller must not unpin
+    boolean pin() {
+        if (pinnedToPrimary()) {
+            return false;
+        }
+        pinnedToPrimary.set(Boolean.TRUE);
+        return true;
+    }
+
+    void unpin() {
+        pinnedToPrimary.remove();
+    }
+}
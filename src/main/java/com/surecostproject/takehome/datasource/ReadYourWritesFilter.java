@@ -0,0 +1,81 @@
+package com.surecostproject.takehome.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Gives each client read-your-writes consistency while replicas catch up. A write request is
+ * answered with a {@value #COOKIE} cookie holding the time until which the client's reads go to the
+ * primary, {@code drug.datasource.read-your-writes-window} from now; set it to the replication lag
+ * you tolerate. Requests carrying an unexpired cookie, and write requests themselves, run pinned to
+ * the primary. Async work, such as exports, runs on other threads and is not pinned.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "drug-read-primary-until";
+
+    private final ReadRouting readRouting;
+
+    public ReadYourWritesFilter(ReadRouting readRouting) {
+        this.readRouting = readRouting;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !readRouting.replicasEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (isWrite(request.getMethod())) {
+            long windowMillis = readRouting.readYourWritesWindow().toMillis();
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now + windowMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+        } else if (primaryUntil(request) <= now) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean pinned = readRouting.pin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (pinned) {
+                readRouting.unpin();
+            }
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
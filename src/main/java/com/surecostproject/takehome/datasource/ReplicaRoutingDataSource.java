@@ -0,0 +1,67 @@
+package com.surecostproject.takehome.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Source of read-only connections: the replica pools in turn, or the primary while
+ * {@link ReadRouting} pins the thread to it. Each choice is counted in {@code drug.datasource.reads}.
+ * Closing it closes the replica pools; the primary pool belongs to the context.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final ReadRouting readRouting;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    ReadRouting readRouting, MeterRegistry registry) {
+        this.replicas = replicas;
+        this.readRouting = readRouting;
+        this.primaryReads = readCounter(registry, PRIMARY);
+        this.replicaReads = readCounter(registry, "replica");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    private static Counter readCounter(MeterRegistry registry, String target) {
+        return Counter.builder("drug.datasource.reads")
+                .description("Read-only connections by the database that served them")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || readRouting.pinnedToPrimary()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -1,7 +1,6 @@
 package com.surecostproject.takehome.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 
@@ -12,7 +11,6 @@ import java.util.List;
 public class BulkDrugDTO {
     
     @NotEmpty(message = "Drug list cannot be empty")
-    @Valid
     @Schema(description = "List of drugs for bulk operation")
     private List<DrugDTO> drugs;
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Summary of a streaming bulk import")
+public class BulkImportSummaryDTO {
+    @Schema(description = "Number of drugs read from the request body")
+    private long received;
+
+    @Schema(description = "Number of drugs persisted")
+    private long imported;
+
+    @Schema(description = "Number of drugs rejected by validation or the database")
+    private long failed;
+
+    @Schema(description = "Number of chunks committed")
+    private int chunks;
+
+    @Schema(description = "Total processing time in milliseconds")
+    private long durationMillis;
+
+    @Schema(description = "First errors encountered, capped to keep the response small")
+    private List<String> errors;
+}
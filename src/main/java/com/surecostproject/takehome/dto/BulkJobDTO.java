@@ -0,0 +1,55 @@
+package com.surecostproject.takehome.dto;
+
+import com.surecostproject.takehome.job.BulkJobOperation;
+import com.surecostproject.takehome.job.BulkJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema(description = "Progress of an asynchronous bulk job")
+public class BulkJobDTO {
+    @Schema(description = "Job identifier used to poll for progress")
+    private UUID jobId;
+
+    @Schema(description = "Bulk operation performed by the job")
+    private BulkJobOperation operation;
+
+    @Schema(description = "Current state of the job")
+    private BulkJobStatus status;
+
+    @Schema(description = "Number of drugs or ids submitted")
+    private int totalItems;
+
+    @Schema(description = "Number of items processed so far")
+    private int processedItems;
+
+    @Schema(description = "Number of items committed")
+    private int succeededItems;
+
+    @Schema(description = "Number of items rejected")
+    private int failedItems;
+
+    @Schema(description = "Processed items as a percentage of all items")
+    private double percentComplete;
+
+    @Schema(description = "Processed items per second since the job started")
+    private double itemsPerSecond;
+
+    @Schema(description = "Time the job was accepted")
+    private Instant submittedAt;
+
+    @Schema(description = "Time a worker picked up the job")
+    private Instant startedAt;
+
+    @Schema(description = "Time the job finished")
+    private Instant finishedAt;
+
+    @Schema(description = "First errors encountered, capped to keep the response small")
+    private List<String> errors;
+}
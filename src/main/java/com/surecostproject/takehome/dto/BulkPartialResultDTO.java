@@ -0,0 +1,33 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Report of a partial-success bulk request")
+public class BulkPartialResultDTO {
+    @Schema(description = "Number of rows in the request")
+    private int total;
+
+    @Schema(description = "Number of rows committed")
+    private int succeededCount;
+
+    @Schema(description = "Number of rows rejected")
+    private int failedCount;
+
+    @Schema(description = "Number of chunk transactions run")
+    private int chunks;
+
+    @Schema(description = "Total processing time in milliseconds")
+    private long durationMillis;
+
+    @Schema(description = "Committed rows with their drug ids, in request order")
+    private List<BulkRowResultDTO> succeeded;
+
+    @Schema(description = "Rejected rows with the reason, in request order; resend only these to retry")
+    private List<BulkRowResultDTO> failed;
+}
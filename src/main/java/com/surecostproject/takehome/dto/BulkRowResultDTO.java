@@ -0,0 +1,23 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of one row of a partial-success bulk request")
+public class BulkRowResultDTO {
+    @Schema(description = "Index of the row in the request")
+    private int index;
+
+    @Schema(description = "Identifier of the drug, when known")
+    private UUID uid;
+
+    @Schema(description = "Why the row was rejected; absent for rows that succeeded")
+    private String error;
+}
@@ -0,0 +1,37 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Statistics of an in-memory cache")
+public class CacheStatsDTO {
+    @Schema(description = "Current number of entries")
+    private int size;
+
+    @Schema(description = "Maximum number of entries")
+    private int maxSize;
+
+    @Schema(description = "Time to live of an entry in seconds")
+    private long ttlSeconds;
+
+    @Schema(description = "Lookups answered from the cache")
+    private long hits;
+
+    @Schema(description = "Lookups that went to the database")
+    private long misses;
+
+    @Schema(description = "Hits divided by all lookups")
+    private double hitRate;
+
+    @Schema(description = "Entries removed to stay within the maximum size")
+    private long evictions;
+
+    @Schema(description = "Entries removed because their time to live elapsed")
+    private long expirations;
+
+    @Schema(description = "Entries removed because the drug was written")
+    private long invalidations;
+}
@@ -0,0 +1,24 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Slice of results for keyset (cursor) pagination, without a total count")
+public class CursorPageDTO<T> {
+    @Schema(description = "Items in this slice")
+    private List<T> content;
+
+    @Schema(description = "Number of items in this slice")
+    private int size;
+
+    @Schema(description = "Whether more items follow this slice")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque cursor for the next slice, null on the last slice")
+    private String nextCursor;
+}
@@ -0,0 +1,30 @@
+package com.surecostproject.takehome.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.surecostproject.takehome.mapper.DrugPageSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@JsonSerialize(using = DrugPageSerializer.class)
+@Schema(description = "Page of drugs returned by list and search endpoints")
+public class DrugPageDTO {
+    @Schema(description = "Drugs on this page")
+    private List<DrugView> content;
+
+    @Schema(description = "Page number (0-based)")
+    private int page;
+
+    @Schema(description = "Requested number of items per page")
+    private int size;
+
+    @Schema(description = "Whether more pages follow this one")
+    private boolean hasNext;
+
+    @Schema(description = "Number of matching drugs; omitted when the total was not requested", nullable = true)
+    private Long totalElements;
+}
@@ -0,0 +1,35 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@Schema(description = "Filters of a composite drug search; absent filters are ignored")
+public class DrugSearchCriteria {
+    @Schema(description = "Substring of the drug name, ignoring case and accents")
+    private String name;
+
+    @Schema(description = "Manufacturer name, ignoring case and accents")
+    private String manufacturer;
+
+    @Schema(description = "Minimum price, inclusive")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Maximum price, inclusive")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "Minimum quantity in stock, inclusive")
+    private Integer minQuantity;
+
+    public boolean hasOnlyName() {
+        return hasText(name) && !hasText(manufacturer) && minPrice == null && maxPrice == null && minQuantity == null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
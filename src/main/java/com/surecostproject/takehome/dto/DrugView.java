@@ -0,0 +1,22 @@
+package com.surecostproject.takehome.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Read-only drug as returned by the read endpoints. Built directly from query rows, without a
+ * managed entity or a DrugMapper pass; serializes to the same JSON as {@link DrugDTO}. The row
+ * version is not serialized; it is sent as the ETag header instead.
+ */
+@Schema(description = "Drug as returned by read endpoints")
+public record DrugView(
+        @Schema(description = "Unique identifier of the drug") UUID uid,
+        @Schema(description = "Name of the drug") String name,
+        @Schema(description = "Name of the drug manufacturer") String manufacturerName,
+        @Schema(description = "Quantity of the drug in stock") int quantity,
+        @Schema(description = "Price of the drug") BigDecimal price,
+        @JsonIgnore @Schema(hidden = true) long version) {
+}
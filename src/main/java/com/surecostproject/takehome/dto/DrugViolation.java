@@ -0,0 +1,38 @@
+package com.surecostproject.takehome.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.surecostproject.takehome.validation.DrugErrorCode;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A rule broken by one drug in a request")
+public record DrugViolation(
+        @Schema(description = "Position of the drug in the request")
+        int index,
+
+        @Schema(description = "Unique identifier of the drug, when the request carried one")
+        UUID uid,
+
+        @Schema(description = "Error code")
+        DrugErrorCode code) {
+
+    @JsonProperty
+    @Schema(description = "Field the error applies to, absent when it applies to the whole drug")
+    public String field() {
+        return code.field();
+    }
+
+    @JsonProperty
+    @Schema(description = "Human-readable error message")
+    public String message() {
+        return code == DrugErrorCode.DRUG_NOT_FOUND ? code.message() + ": " + uid : code.message();
+    }
+
+    // Legacy flat form used in the errors list, e.g. "Drug at index 1: Drug name cannot be empty"
+    public String describe() {
+        return "Drug at index " + index + ": " + message();
+    }
+}
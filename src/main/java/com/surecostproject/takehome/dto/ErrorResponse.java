@@ -23,6 +23,9 @@ public class ErrorResponse {
     @Schema(description = "List of validation errors")
     private List<String> errors;
     
+    @Schema(description = "Validation errors with their index, field and code, in the same order as errors")
+    private List<DrugViolation> violations;
+    
     @Schema(description = "Path where the error occurred")
     private String path;
 } 
\ No newline at end of file
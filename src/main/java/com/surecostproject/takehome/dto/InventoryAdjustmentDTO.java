@@ -0,0 +1,23 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a quantity adjustment")
+public class InventoryAdjustmentDTO {
+    @Schema(description = "Unique identifier of the drug")
+    private UUID uid;
+
+    @Schema(description = "Units added (positive) or removed (negative)")
+    private int delta;
+
+    @Schema(description = "Quantity including all accepted adjustments, some of which may not be written to the database yet")
+    private int quantity;
+}
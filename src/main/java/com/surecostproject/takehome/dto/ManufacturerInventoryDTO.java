@@ -0,0 +1,24 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@Schema(description = "Inventory totals over all drugs of a manufacturer")
+public class ManufacturerInventoryDTO {
+    @Schema(description = "Name of the manufacturer")
+    private String manufacturerName;
+
+    @Schema(description = "Number of drugs")
+    private long drugCount;
+
+    @Schema(description = "Sum of the quantities")
+    private long totalUnits;
+
+    @Schema(description = "Sum of quantity times price")
+    private BigDecimal stockValue;
+}
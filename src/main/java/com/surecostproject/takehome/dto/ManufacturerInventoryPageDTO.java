@@ -0,0 +1,27 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Page of manufacturer inventory totals, in the shape of the drug list pages")
+public class ManufacturerInventoryPageDTO {
+    @Schema(description = "Manufacturer totals on this page")
+    private List<ManufacturerInventoryDTO> content;
+
+    @Schema(description = "Page number (0-based)")
+    private int page;
+
+    @Schema(description = "Requested number of items per page")
+    private int size;
+
+    @Schema(description = "Whether more pages follow this one")
+    private boolean hasNext;
+
+    @Schema(description = "Number of manufacturers")
+    private long totalElements;
+}
@@ -0,0 +1,14 @@
+package com.surecostproject.takehome.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+@Schema(description = "Relative change to the quantity of a drug")
+public class QuantityAdjustmentDTO {
+
+    @NotNull(message = "Delta is required")
+    @Schema(description = "Units to add (positive) or remove (negative)")
+    private Integer delta;
+}
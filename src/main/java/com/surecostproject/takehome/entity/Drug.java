@@ -83,19 +83,32 @@ it reccomended Lombok annotations to reduce boilerplate code */
 
 package com.surecostproject.takehome.entity;
 
+import com.surecostproject.takehome.manufacturer.DrugManufacturerListener;
+import com.surecostproject.takehome.search.SearchNormalizer;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
 import java.math.BigDecimal;
+import java.util.Objects;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(DrugManufacturerListener.class)
+@Table(indexes = {
+        // Name order for sorted listings and searches
+        @Index(name = "idx_drug_name", columnList = "name"),
+        // Prefix searches and equality on the normalized columns
+        @Index(name = "idx_drug_name_search", columnList = "name_search"),
+        // Manufacturer alone or manufacturer with a price range
+        @Index(name = "idx_drug_manufacturer_price", columnList = "manufacturer_id, price"),
+        @Index(name = "idx_drug_price", columnList = "price"),
+        @Index(name = "idx_drug_quantity", columnList = "quantity")
+})
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class Drug {
 
     @Id
@@ -106,12 +119,58 @@ public class Drug {
     @Column(name = "name", nullable = false)
     private String name;
 
-    @Column(name = "manufacturer_name", nullable = false)
+    // Interned through ManufacturerDictionary; the name below is filled from it when a drug is loaded
+    @Column(name = "manufacturer_id", nullable = false)
+    private Integer manufacturerId;
+
+    @Transient
     private String manufacturerName;
 
+    // Read-only join, only used to sort queries by manufacturer name
+    @Setter(AccessLevel.NONE)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "manufacturer_id", insertable = false, updatable = false)
+    private Manufacturer manufacturer;
+
     @Column(name = "quantity", nullable = false)
     private int quantity;
 
     @Column(name = "price", nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
-}
+
+    // Normalized copy of name for searching, kept in step by the setter
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_search", nullable = false)
+    private String nameSearch;
+
+    // Incremented by every write, including the bulk update and inventory flush statements; also the drug's ETag
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    public Drug(UUID uid, String name, String manufacturerName, int quantity, BigDecimal price) {
+        this.uid = uid;
+        setName(name);
+        setManufacturerName(manufacturerName);
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameSearch = SearchNormalizer.normalize(name);
+    }
+
+    // A different manufacturer drops the id so it is resolved again before the drug is written
+    public void setManufacturerName(String manufacturerName) {
+        if (!Objects.equals(SearchNormalizer.normalize(this.manufacturerName), SearchNormalizer.normalize(manufacturerName))) {
+            this.manufacturerId = null;
+        }
+        this.manufacturerName = manufacturerName;
+    }
+
+    public void assignManufacturer(Integer manufacturerId, String manufacturerName) {
+        this.manufacturerId = manufacturerId;
+        this.manufacturerName = manufacturerName;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.surecostproject.takehome.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * One row per distinct manufacturer. Drugs reference it by its integer id, and the name is kept in
+ * the spelling it was first seen with. search_name is the normalized form used for matching.
+ * <p>
+ * The row also holds the inventory totals of the manufacturer's drugs. They are only changed by
+ * incremental SQL updates in the same transaction as the drug writes, never through this entity.
+ */
+@Entity
+@Table(name = "manufacturer", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_manufacturer_search_name", columnNames = "search_name")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class Manufacturer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Integer id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "search_name", nullable = false)
+    private String searchName;
+
+    @Column(name = "drug_count", nullable = false, updatable = false)
+    private long drugCount;
+
+    @Column(name = "total_units", nullable = false, updatable = false)
+    private long totalUnits;
+
+    // Sum of quantity * price
+    @Column(name = "stock_value", nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal stockValue = BigDecimal.ZERO;
+
+    public Manufacturer(String name, String searchName) {
+        this.name = name;
+        this.searchName = searchName;
+    }
+}
@@ -0,0 +1,22 @@
+package com.surecostproject.takehome.event;
+
+import com.surecostproject.takehome.entity.Drug;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by write paths inside their transaction. In-memory structures that mirror the catalog
+ * listen with {@code @TransactionalEventListener}, so they only see changes that were committed.
+ */
+public record DrugChangeEvent(List<Drug> upserted, Collection<UUID> deleted) {
+
+    public static DrugChangeEvent upserted(List<Drug> drugs) {
+        return new DrugChangeEvent(drugs, List.of());
+    }
+
+    public static DrugChangeEvent deleted(Collection<UUID> ids) {
+        return new DrugChangeEvent(List.of(), ids);
+    }
+}
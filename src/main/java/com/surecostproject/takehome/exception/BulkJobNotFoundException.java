@@ -0,0 +1,9 @@
+package com.surecostproject.takehome.exception;
+
+import java.util.UUID;
+
+public class BulkJobNotFoundException extends StacklessException {
+    public BulkJobNotFoundException(UUID id) {
+        super("Bulk job not found with id: " + id);
+    }
+}
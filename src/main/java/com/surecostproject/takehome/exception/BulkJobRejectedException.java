@@ -0,0 +1,7 @@
+package com.surecostproject.takehome.exception;
+
+public class BulkJobRejectedException extends StacklessException {
+    public BulkJobRejectedException(String message) {
+        super(message);
+    }
+}
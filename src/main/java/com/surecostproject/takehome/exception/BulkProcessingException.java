@@ -1,16 +1,34 @@
 package com.surecostproject.takehome.exception;
 
+import com.surecostproject.takehome.dto.DrugViolation;
+
 import java.util.List;
 
-public class BulkProcessingException extends RuntimeException {
+public class BulkProcessingException extends StacklessException {
     private final List<String> errors;
+    private final List<DrugViolation> violations;
 
     public BulkProcessingException(String message, List<String> errors) {
+        this(message, errors, null);
+    }
+
+    public BulkProcessingException(String message, List<String> errors, List<DrugViolation> violations) {
         super(message);
         this.errors = errors;
+        this.violations = violations;
+    }
+
+    // Builds the legacy errors list from the violations
+    public static BulkProcessingException of(String message, List<DrugViolation> violations) {
+        return new BulkProcessingException(message,
+                violations.stream().map(DrugViolation::describe).toList(), violations);
     }
 
     public List<String> getErrors() {
         return errors;
     }
-} 
\ No newline at end of file
+
+    public List<DrugViolation> getViolations() {
+        return violations;
+    }
+}
@@ -2,7 +2,7 @@ package com.surecostproject.takehome.exception;
 
 import java.util.UUID;
 
-public class DrugNotFoundException extends RuntimeException {
+public class DrugNotFoundException extends StacklessException {
     public DrugNotFoundException(UUID id) {
         super("Drug not found with id: " + id);
     }
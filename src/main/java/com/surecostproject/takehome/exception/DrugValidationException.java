@@ -0,0 +1,19 @@
+package com.surecostproject.takehome.exception;
+
+import com.surecostproject.takehome.dto.DrugViolation;
+
+import java.util.List;
+
+// A single drug broke one or more validation rules
+public class DrugValidationException extends InvalidDrugRequestException {
+    private final List<DrugViolation> violations;
+
+    public DrugValidationException(List<DrugViolation> violations) {
+        super("Validation failed");
+        this.violations = violations;
+    }
+
+    public List<DrugViolation> getViolations() {
+        return violations;
+    }
+}
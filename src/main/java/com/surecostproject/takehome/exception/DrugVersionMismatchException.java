@@ -0,0 +1,9 @@
+package com.surecostproject.takehome.exception;
+
+import java.util.UUID;
+
+public class DrugVersionMismatchException extends StacklessException {
+    public DrugVersionMismatchException(UUID id, long expected, long current) {
+        super("Drug " + id + " is at version " + current + ", not the expected version " + expected);
+    }
+}
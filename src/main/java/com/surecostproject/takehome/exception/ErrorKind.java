@@ -0,0 +1,54 @@
+package com.surecostproject.takehome.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Template for each kind of error response: its status, the label it is logged and counted under,
+ * and for errors that do not describe the request, the fixed message sent to the client.
+ */
+public enum ErrorKind {
+    DRUG_NOT_FOUND(HttpStatus.NOT_FOUND, "Drug not found"),
+    MANUFACTURER_NOT_FOUND(HttpStatus.NOT_FOUND, "Manufacturer not found"),
+    BULK_JOB_NOT_FOUND(HttpStatus.NOT_FOUND, "Bulk job not found"),
+    INVALID_REQUEST(HttpStatus.BAD_REQUEST, "Invalid drug request"),
+    DRUG_VALIDATION(HttpStatus.BAD_REQUEST, "Drug validation error"),
+    BULK_PROCESSING(HttpStatus.BAD_REQUEST, "Bulk processing error"),
+    REQUEST_VALIDATION(HttpStatus.BAD_REQUEST, "Validation error", "Validation failed"),
+    CONSTRAINT_VIOLATION(HttpStatus.BAD_REQUEST, "Constraint violation", "Constraint violation"),
+    MALFORMED_BODY(HttpStatus.BAD_REQUEST, "Malformed request body"),
+    UNREADABLE_BODY(HttpStatus.BAD_REQUEST, "Unreadable request body", "The request body could not be read"),
+    INSUFFICIENT_STOCK(HttpStatus.CONFLICT, "Insufficient stock"),
+    CONCURRENT_MODIFICATION(HttpStatus.CONFLICT, "Concurrent modification",
+            "The drug was modified concurrently; reload it and retry"),
+    VERSION_MISMATCH(HttpStatus.PRECONDITION_FAILED, "Drug version mismatch"),
+    BODY_TOO_LARGE(HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large"),
+    BULK_JOB_REJECTED(HttpStatus.SERVICE_UNAVAILABLE, "Bulk job rejected"),
+    UNEXPECTED(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error", "An unexpected error occurred");
+
+    private final HttpStatus status;
+    private final String label;
+    private final String message;
+
+    ErrorKind(HttpStatus status, String label) {
+        this(status, label, null);
+    }
+
+    ErrorKind(HttpStatus status, String label, String message) {
+        this.status = status;
+        this.label = label;
+        this.message = message;
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    // Fixed client message, or null when the exception message is sent
+    public String message() {
+        return message;
+    }
+}
@@ -0,0 +1,89 @@
+package com.surecostproject.takehome.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts and logs the errors answered by {@link GlobalExceptionHandler}. Every error increments
+ * {@code drug.api.errors}, tagged with its kind and status, but each kind logs at most
+ * {@code drug.errors.log-limit-per-second} lines a second; the next line logged reports how many
+ * were suppressed. Client errors are logged at WARN and server errors at ERROR with their trace.
+ */
+@Slf4j
+@Component
+public class ErrorReporter {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<ErrorKind, Counter> counters = new EnumMap<>(ErrorKind.class);
+    private final Map<ErrorKind, LogLimiter> limiters = new EnumMap<>(ErrorKind.class);
+    private final int logLimitPerSecond;
+
+    public ErrorReporter(MeterRegistry registry,
+                         @Value("${drug.errors.log-limit-per-second:10}") int logLimitPerSecond) {
+        this.logLimitPerSecond = logLimitPerSecond;
+        for (ErrorKind kind : ErrorKind.values()) {
+            counters.put(kind, Counter.builder("drug.api.errors")
+                    .description("Error responses by kind")
+                    .tag("kind", kind.name().toLowerCase())
+                    .tag("status", String.valueOf(kind.status().value()))
+                    .register(registry));
+            limiters.put(kind, new LogLimiter());
+        }
+    }
+
+    public void report(ErrorKind kind, Object detail) {
+        report(kind, detail, null);
+    }
+
+    public void report(ErrorKind kind, Object detail, Throwable cause) {
+        counters.get(kind).increment();
+        long suppressed = limiters.get(kind).tryAcquire(System.nanoTime(), logLimitPerSecond);
+        if (suppressed < 0) {
+            return;
+        }
+        if (kind.status().is5xxServerError()) {
+            if (suppressed > 0) {
+                log.error("{}: {} ({} similar suppressed)", kind.label(), detail, suppressed, cause);
+            } else {
+                log.error("{}: {}", kind.label(), detail, cause);
+            }
+        } else if (suppressed > 0) {
+            log.warn("{}: {} ({} similar suppressed)", kind.label(), detail, suppressed);
+        } else {
+            log.warn("{}: {}", kind.label(), detail);
+        }
+    }
+
+    /**
+     * Fixed one-second windows. Returns -1 when the line must be dropped, or else the number of
+     * lines dropped since the last one logged. Two threads may both open a new window, letting a
+     * few extra lines through, which is cheaper than locking.
+     */
+    private static final class LogLimiter {
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicInteger logged = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        long tryAcquire(long now, int limit) {
+            long start = windowStart.get();
+            if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+                logged.set(0);
+            }
+            if (logged.incrementAndGet() > limit) {
+                suppressed.incrementAndGet();
+                return -1;
+            }
+            return suppressed.getAndSet(0);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.surecostproject.takehome.exception;
 
+import com.surecostproject.takehome.dto.DrugViolation;
 import com.surecostproject.takehome.dto.ErrorResponse;
 import jakarta.validation.ConstraintViolationException;
-import lombok.extern.slf4j.Slf4j;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -15,17 +19,19 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
-@Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final ErrorReporter errorReporter;
+
     @ExceptionHandler(DrugNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<ErrorResponse> handleDrugNotFoundException(
             DrugNotFoundException ex, WebRequest request) {
-        log.error("Drug not found: {}", ex.getMessage());
+        errorReporter.report(ErrorKind.DRUG_NOT_FOUND, ex.getMessage());
         return buildErrorResponse(
-                HttpStatus.NOT_FOUND,
+                ErrorKind.DRUG_NOT_FOUND,
                 ex.getMessage(),
                 request.getDescription(false)
         );
@@ -35,24 +41,115 @@ public class GlobalExceptionHandler {
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<ErrorResponse> handleInvalidDrugRequestException(
             InvalidDrugRequestException ex, WebRequest request) {
-        log.error("Invalid drug request: {}", ex.getMessage());
+        errorReporter.report(ErrorKind.INVALID_REQUEST, ex.getMessage());
         return buildErrorResponse(
-                HttpStatus.BAD_REQUEST,
+                ErrorKind.INVALID_REQUEST,
                 ex.getMessage(),
                 request.getDescription(false)
         );
     }
 
+    @ExceptionHandler(DrugValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ErrorResponse> handleDrugValidationException(
+            DrugValidationException ex, WebRequest request) {
+        List<String> errors = ex.getViolations()
+                .stream()
+                .map(violation -> violation.field() + ": " + violation.message())
+                .collect(Collectors.toList());
+
+        errorReporter.report(ErrorKind.DRUG_VALIDATION, errors);
+        return buildErrorResponse(
+                ErrorKind.DRUG_VALIDATION,
+                ex.getMessage(),
+                request.getDescription(false),
+                errors,
+                ex.getViolations()
+        );
+    }
+
     @ExceptionHandler(BulkProcessingException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<ErrorResponse> handleBulkProcessingException(
             BulkProcessingException ex, WebRequest request) {
-        log.error("Bulk processing error: {}", ex.getMessage());
+        errorReporter.report(ErrorKind.BULK_PROCESSING, ex.getMessage());
         return buildErrorResponse(
-                HttpStatus.BAD_REQUEST,
+                ErrorKind.BULK_PROCESSING,
                 ex.getMessage(),
                 request.getDescription(false),
-                ex.getErrors()
+                ex.getErrors(),
+                ex.getViolations()
+        );
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ErrorResponse> handleInsufficientStockException(
+            InsufficientStockException ex, WebRequest request) {
+        errorReporter.report(ErrorKind.INSUFFICIENT_STOCK, ex.getMessage());
+        return buildErrorResponse(
+                ErrorKind.INSUFFICIENT_STOCK,
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+    }
+
+    @ExceptionHandler(DrugVersionMismatchException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<ErrorResponse> handleDrugVersionMismatchException(
+            DrugVersionMismatchException ex, WebRequest request) {
+        errorReporter.report(ErrorKind.VERSION_MISMATCH, ex.getMessage());
+        return buildErrorResponse(
+                ErrorKind.VERSION_MISMATCH,
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        errorReporter.report(ErrorKind.CONCURRENT_MODIFICATION, ex.getMessage());
+        return buildErrorResponse(
+                ErrorKind.CONCURRENT_MODIFICATION,
+                request.getDescription(false)
+        );
+    }
+
+    @ExceptionHandler(ManufacturerNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<ErrorResponse> handleManufacturerNotFoundException(
+            ManufacturerNotFoundException ex, WebRequest request) {
+        errorReporter.report(ErrorKind.MANUFACTURER_NOT_FOUND, ex.getMessage());
+        return buildErrorResponse(
+                ErrorKind.MANUFACTURER_NOT_FOUND,
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+    }
+
+    @ExceptionHandler(BulkJobNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<ErrorResponse> handleBulkJobNotFoundException(
+            BulkJobNotFoundException ex, WebRequest request) {
+        errorReporter.report(ErrorKind.BULK_JOB_NOT_FOUND, ex.getMessage());
+        return buildErrorResponse(
+                ErrorKind.BULK_JOB_NOT_FOUND,
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+    }
+
+    @ExceptionHandler(BulkJobRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ErrorResponse> handleBulkJobRejectedException(
+            BulkJobRejectedException ex, WebRequest request) {
+        errorReporter.report(ErrorKind.BULK_JOB_REJECTED, ex.getMessage());
+        return buildErrorResponse(
+                ErrorKind.BULK_JOB_REJECTED,
+                ex.getMessage(),
+                request.getDescription(false)
         );
     }
 
@@ -60,10 +157,9 @@ public class GlobalExceptionHandler {
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<ErrorResponse> handleGenericApplicationException(
             GenericApplicationException ex, WebRequest request) {
-        log.error("Unexpected error: {}", ex.getMessage(), ex);
+        errorReporter.report(ErrorKind.UNEXPECTED, ex.getMessage(), ex);
         return buildErrorResponse(
-                HttpStatus.INTERNAL_SERVER_ERROR,
-                "An unexpected error occurred",
+                ErrorKind.UNEXPECTED,
                 request.getDescription(false)
         );
     }
@@ -78,10 +174,9 @@ public class GlobalExceptionHandler {
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .collect(Collectors.toList());
 
-        log.error("Validation error: {}", errors);
+        errorReporter.report(ErrorKind.REQUEST_VALIDATION, errors);
         return buildErrorResponse(
-                HttpStatus.BAD_REQUEST,
-                "Validation failed",
+                ErrorKind.REQUEST_VALIDATION,
                 request.getDescription(false),
                 errors
         );
@@ -96,42 +191,92 @@ public class GlobalExceptionHandler {
                 .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
                 .collect(Collectors.toList());
 
-        log.error("Constraint violation: {}", errors);
+        errorReporter.report(ErrorKind.CONSTRAINT_VIOLATION, errors);
         return buildErrorResponse(
-                HttpStatus.BAD_REQUEST,
-                "Constraint violation",
+                ErrorKind.CONSTRAINT_VIOLATION,
                 request.getDescription(false),
                 errors
         );
     }
 
+    @ExceptionHandler(RequestBodyTooLargeException.class)
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public ResponseEntity<ErrorResponse> handleRequestBodyTooLargeException(
+            RequestBodyTooLargeException ex, WebRequest request) {
+        errorReporter.report(ErrorKind.BODY_TOO_LARGE, ex.getMessage());
+        return buildErrorResponse(
+                ErrorKind.BODY_TOO_LARGE,
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+    }
+
+    @ExceptionHandler(MalformedRequestBodyException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ErrorResponse> handleMalformedRequestBodyException(
+            MalformedRequestBodyException ex, WebRequest request) {
+        errorReporter.report(ErrorKind.MALFORMED_BODY, ex.getMessage());
+        return buildErrorResponse(
+                ErrorKind.MALFORMED_BODY,
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+    }
+
+    // Converters wrap failures of the body stream, so the cause decides between 413 and 400
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleHttpMessageNotReadableException(
+            HttpMessageNotReadableException ex, WebRequest request) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+        if (cause instanceof RequestBodyTooLargeException tooLarge) {
+            return handleRequestBodyTooLargeException(tooLarge, request);
+        }
+        if (cause instanceof MalformedRequestBodyException malformed) {
+            return handleMalformedRequestBodyException(malformed, request);
+        }
+        errorReporter.report(ErrorKind.UNREADABLE_BODY, cause.getMessage());
+        return buildErrorResponse(
+                ErrorKind.UNREADABLE_BODY,
+                request.getDescription(false)
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<ErrorResponse> handleAllUncaughtException(
             Exception ex, WebRequest request) {
-        log.error("Unexpected error occurred", ex);
+        errorReporter.report(ErrorKind.UNEXPECTED, "Unexpected error occurred", ex);
         return buildErrorResponse(
-                HttpStatus.INTERNAL_SERVER_ERROR,
-                "An unexpected error occurred",
+                ErrorKind.UNEXPECTED,
                 request.getDescription(false)
         );
     }
 
-    private ResponseEntity<ErrorResponse> buildErrorResponse(
-            HttpStatus status, String message, String path) {
-        return buildErrorResponse(status, message, path, null);
+    // Kinds with a fixed message
+    private ResponseEntity<ErrorResponse> buildErrorResponse(ErrorKind kind, String path) {
+        return buildErrorResponse(kind, kind.message(), path, null, null);
+    }
+
+    private ResponseEntity<ErrorResponse> buildErrorResponse(ErrorKind kind, String path, List<String> errors) {
+        return buildErrorResponse(kind, kind.message(), path, errors, null);
+    }
+
+    private ResponseEntity<ErrorResponse> buildErrorResponse(ErrorKind kind, String message, String path) {
+        return buildErrorResponse(kind, message, path, null, null);
     }
 
     private ResponseEntity<ErrorResponse> buildErrorResponse(
-            HttpStatus status, String message, String path, List<String> errors) {
+            ErrorKind kind, String message, String path, List<String> errors,
+            List<DrugViolation> violations) {
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(status.value())
+                .status(kind.status().value())
                 .message(message)
                 .timestamp(LocalDateTime.now())
                 .path(path)
                 .errors(errors)
+                .violations(violations)
                 .build();
 
-        return new ResponseEntity<>(errorResponse, status);
+        return new ResponseEntity<>(errorResponse, kind.status());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.surecostproject.takehome.exception;
+
+import java.util.UUID;
+
+public class InsufficientStockException extends StacklessException {
+    public InsufficientStockException(UUID id, long available, int delta) {
+        super("Insufficient stock for drug " + id + ": " + available + " available, adjustment of " + delta + " refused");
+    }
+}
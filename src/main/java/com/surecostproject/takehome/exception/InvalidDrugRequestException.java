@@ -1,6 +1,6 @@
 package com.surecostproject.takehome.exception;
 
-public class InvalidDrugRequestException extends RuntimeException {
+public class InvalidDrugRequestException extends StacklessException {
     public InvalidDrugRequestException(String message) {
         super(message);
     }
@@ -0,0 +1,13 @@
+package com.surecostproject.takehome.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown from a request body stream whose bytes cannot be decoded as its Content-Encoding says.
+ * Answered with 400 by {@link GlobalExceptionHandler}, also when a message converter has wrapped it.
+ */
+public class MalformedRequestBodyException extends IOException {
+    public MalformedRequestBodyException(String message) {
+        super(message);
+    }
+}
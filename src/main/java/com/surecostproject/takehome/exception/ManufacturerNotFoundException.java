@@ -0,0 +1,7 @@
+package com.surecostproject.takehome.exception;
+
+public class ManufacturerNotFoundException extends StacklessException {
+    public ManufacturerNotFoundException(String name) {
+        super("Manufacturer not found with name: " + name);
+    }
+}
@@ -0,0 +1,14 @@
+package com.surecostproject.takehome.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown from a request body stream once it has produced more than the server accepts. An
+ * IOException so it can surface from the read itself; {@link GlobalExceptionHandler} answers it
+ * with 413, also when a message converter has wrapped it.
+ */
+public class RequestBodyTooLargeException extends IOException {
+    public RequestBodyTooLargeException(String message) {
+        super(message);
+    }
+}
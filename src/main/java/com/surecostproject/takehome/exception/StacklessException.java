@@ -0,0 +1,13 @@
+package com.surecostproject.takehome.exception;
+
+/**
+ * Base of the exceptions that describe a request the API refuses. They are always answered by
+ * {@link GlobalExceptionHandler} with a 4xx or 503 and never logged with a trace, so they skip
+ * capturing one: filling in the stack is the most expensive part of throwing, and a client
+ * repeating a bad request would otherwise pay it on every call.
+ */
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,298 @@
+package com.surecostproject.takehome.inventory;
+
+import com.surecostproject.takehome.dto.InventoryAdjustmentDTO;
+import com.surecostproject.takehome.datasource.ReadRouting;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.event.DrugChangeEvent;
+import com.surecostproject.takehome.exception.DrugNotFoundException;
+import com.surecostproject.takehome.exception.InsufficientStockException;
+import com.surecostproject.takehome.exception.InvalidDrugRequestException;
+import com.surecostproject.takehome.metrics.DrugMetrics;
+import com.surecostproject.takehome.metrics.DrugMetrics.BulkOperation;
+import com.surecostproject.takehome.repository.DrugRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Quantity increments and decrements with write-behind. Adjustments are checked against the known
+ * stock and coalesced per drug in memory; a scheduled flush writes one atomic
+ * {@code quantity = quantity + delta} update per drug, batched, so a hot drug costs one row update
+ * per flush interval instead of one per request.
+ * <p>
+ * Stock never goes negative: adjustments that would take the projected quantity below zero are
+ * refused, and the flush statement itself only applies a delta while the result stays non-negative.
+ * Pending deltas are flushed when the application shuts down cleanly.
+ */
+@Slf4j
+@Service
+public class InventoryService {
+    private static final int STRIPES = 64;
+
+    private final DrugRepository drugRepository;
+    private final ReadRouting readRouting;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DrugMetrics drugMetrics;
+    private final ManufacturerInventoryService manufacturerInventoryService;
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final int maxFlushSize;
+
+    public InventoryService(DrugRepository drugRepository,
+                            ReadRouting readRouting,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            DrugMetrics drugMetrics,
+                            ManufacturerInventoryService manufacturerInventoryService,
+                            @Value("${drug.inventory.max-flush-size:5000}") int maxFlushSize) {
+        this.drugRepository = drugRepository;
+        this.readRouting = readRouting;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.drugMetrics = drugMetrics;
+        this.manufacturerInventoryService = manufacturerInventoryService;
+        this.maxFlushSize = maxFlushSize;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Applies a delta to the projected quantity of a drug and returns the new projection.
+     * The change reaches the database with the next flush.
+     */
+    public InventoryAdjustmentDTO adjustQuantity(UUID id, int delta) {
+        Counter loaded = counterFor(id);
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            // A flush may have released the counter since it was looked up
+            Counter counter = counters.computeIfAbsent(id, key -> loaded);
+            long available = counter.available() + delta;
+            if (available < 0) {
+                throw new InsufficientStockException(id, counter.available(), delta);
+            }
+            if (available > Integer.MAX_VALUE) {
+                throw new InvalidDrugRequestException("Quantity cannot exceed " + Integer.MAX_VALUE);
+            }
+            counter.pending += delta;
+            return new InventoryAdjustmentDTO(id, delta, (int) available);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${drug.inventory.flush-interval:PT0.5S}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        log.info("Flushed {} pending inventory adjustments on shutdown", flushed);
+    }
+
+    /**
+     * Writes all pending deltas and returns the number of drugs updated.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            int flushed = 0;
+            Map<UUID, Integer> batch;
+            while (!(batch = drainPending()).isEmpty()) {
+                int written = write(batch);
+                if (written < 0) {
+                    // The batch is pending again; retrying it now would fail the same way
+                    break;
+                }
+                flushed += written;
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Committed writes replace the known stock; the flush's own event also clears its in-flight deltas
+    @TransactionalEventListener
+    public void onDrugChange(DrugChangeEvent event) {
+        for (Drug drug : event.upserted()) {
+            Counter counter = counters.get(drug.getUid());
+            if (counter == null) {
+                continue;
+            }
+            ReentrantLock lock = stripe(drug.getUid());
+            lock.lock();
+            try {
+                counter.base = drug.getQuantity();
+                counter.inFlight = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+        for (UUID id : event.deleted()) {
+            ReentrantLock lock = stripe(id);
+            lock.lock();
+            try {
+                counters.remove(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Counter counterFor(UUID id) {
+        Counter counter = counters.get(id);
+        if (counter != null) {
+            return counter;
+        }
+        // Read outside the stripe lock; only the first adjustment of a drug since the last flush pays for it.
+        // The counter starts from this quantity, so it must not come from a lagging replica
+        int quantity = readRouting.readFromPrimary(() -> drugRepository.findQuantityById(id))
+                .orElseThrow(() -> new DrugNotFoundException(id));
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            return counters.computeIfAbsent(id, key -> new Counter(quantity));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<UUID, Integer> drainPending() {
+        Map<UUID, Integer> batch = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Counter> entry : counters.entrySet()) {
+            if (batch.size() >= maxFlushSize) {
+                break;
+            }
+            ReentrantLock lock = stripe(entry.getKey());
+            lock.lock();
+            try {
+                Counter counter = entry.getValue();
+                if (counter.pending != 0) {
+                    batch.put(entry.getKey(), (int) counter.pending);
+                    counter.inFlight += counter.pending;
+                    counter.pending = 0;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return batch;
+    }
+
+    // Returns the number of drugs updated, or -1 if the batch failed and was returned to pending
+    private int write(Map<UUID, Integer> batch) {
+        drugMetrics.recordBulkBatch(BulkOperation.INVENTORY_FLUSH, batch.size());
+        Set<UUID> rejected;
+        AtomicBoolean committed = new AtomicBoolean();
+        try {
+            rejected = transactionTemplate.execute(status -> {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completion) {
+                        committed.set(completion == STATUS_COMMITTED);
+                    }
+                });
+                Set<UUID> notApplied = drugRepository.batchAdjustQuantities(batch);
+                List<UUID> applied = batch.keySet().stream().filter(id -> !notApplied.contains(id)).toList();
+                // Reloaded so cache and search index listeners see the committed quantities
+                List<Drug> adjusted = drugRepository.findAllById(applied);
+                manufacturerInventoryService.recordQuantityChanges(adjusted, batch);
+                eventPublisher.publishEvent(DrugChangeEvent.upserted(adjusted));
+                return notApplied;
+            });
+        } catch (RuntimeException e) {
+            if (committed.get()) {
+                // The deltas are in the database; only an after-commit listener failed
+                log.error("Inventory flush of {} drugs committed, but a listener failed", batch.size(), e);
+                release(batch.keySet());
+                return batch.size();
+            }
+            // Nothing was written (the database, the transaction or a step inside it failed);
+            // return the deltas so the next flush retries them
+            log.warn("Inventory flush of {} drugs failed: {}", batch.size(), NestedExceptionUtils.getMostSpecificCause(e).toString());
+            restore(batch);
+            return -1;
+        }
+        for (UUID id : rejected) {
+            log.warn("Dropped inventory delta {} for drug {}: drug deleted or stock too low", batch.get(id), id);
+        }
+        release(batch.keySet());
+        return batch.size() - rejected.size();
+    }
+
+    private void restore(Map<UUID, Integer> batch) {
+        batch.forEach((id, delta) -> {
+            ReentrantLock lock = stripe(id);
+            lock.lock();
+            try {
+                Counter counter = counters.get(id);
+                if (counter != null) {
+                    counter.inFlight -= delta;
+                    counter.pending += delta;
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // Settled drugs are dropped so the map only holds drugs adjusted since the last flush
+    private void release(Set<UUID> ids) {
+        for (UUID id : ids) {
+            ReentrantLock lock = stripe(id);
+            lock.lock();
+            try {
+                Counter counter = counters.get(id);
+                if (counter != null && counter.pending == 0) {
+                    counters.remove(id);
+                } else if (counter != null) {
+                    counter.inFlight = 0;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ReentrantLock stripe(UUID id) {
+        return stripes[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    // Guarded by the stripe lock of its drug
+    private static final class Counter {
+        private int base;
+        private long pending;
+        private long inFlight;
+
+        private Counter(int base) {
+            this.base = base;
+        }
+
+        private long available() {
+            return base + inFlight + pending;
+        }
+    }
+}
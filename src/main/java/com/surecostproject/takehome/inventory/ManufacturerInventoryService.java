@@ -0,0 +1,176 @@
+package com.surecostproject.takehome.inventory;
+
+import com.surecostproject.takehome.dto.ManufacturerInventoryDTO;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.entity.Manufacturer;
+import com.surecostproject.takehome.exception.ManufacturerNotFoundException;
+import com.surecostproject.takehome.manufacturer.ManufacturerDictionary;
+import com.surecostproject.takehome.repository.DrugBatchRepository.DrugStock;
+import com.surecostproject.takehome.repository.DrugRepository;
+import com.surecostproject.takehome.repository.ManufacturerRepository;
+import com.surecostproject.takehome.repository.ManufacturerStockRepository.StockDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-manufacturer inventory totals (drug count, units and stock value) stored on the manufacturer
+ * rows, so reading them is a primary key lookup instead of a scan of the drug table.
+ * <p>
+ * Every drug write records its change here inside the writing transaction, before the drugs are
+ * written. The affected drug rows are locked first, so the old values subtracted are exactly the
+ * ones the write replaces, and the totals move by increments that commit or roll back with it.
+ * Writes that bypass DrugService and InventoryService are not counted.
+ */
+@Service
+@RequiredArgsConstructor
+public class ManufacturerInventoryService {
+
+    private final DrugRepository drugRepository;
+    private final ManufacturerRepository manufacturerRepository;
+    private final ManufacturerDictionary manufacturerDictionary;
+
+    /**
+     * Counts drugs about to be saved. A drug with a uid replaces the row it names, if there is one;
+     * for repeated uids the last drug wins, as it does in the database.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordInserts(Collection<Drug> drugs) {
+        record(drugs, true);
+    }
+
+    /**
+     * Counts drugs about to be overwritten by uid. Drugs whose row does not exist are skipped, since
+     * the update will not write them either.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpdates(Collection<Drug> drugs) {
+        record(drugs, false);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletes(Collection<UUID> ids) {
+        Totals totals = new Totals();
+        for (DrugStock stock : drugRepository.lockStock(ids)) {
+            totals.remove(stock.manufacturerId(), stock.quantity(), stock.price());
+        }
+        totals.applyTo(manufacturerRepository);
+    }
+
+    /**
+     * Counts quantity deltas that were already applied. The adjusted drugs must have been read after
+     * the adjustment, in the same transaction, so their rows are locked and their prices current.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordQuantityChanges(Collection<Drug> adjusted, Map<UUID, Integer> deltas) {
+        Totals totals = new Totals();
+        for (Drug drug : adjusted) {
+            totals.adjust(drug.getManufacturerId(), deltas.get(drug.getUid()), drug.getPrice());
+        }
+        totals.applyTo(manufacturerRepository);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ManufacturerInventoryDTO> getInventories(Pageable pageable) {
+        return manufacturerRepository.findAll(pageable).map(ManufacturerInventoryService::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public ManufacturerInventoryDTO getInventory(String manufacturerName) {
+        return manufacturerDictionary.findId(manufacturerName)
+                .flatMap(manufacturerRepository::findById)
+                .map(ManufacturerInventoryService::toDTO)
+                .orElseThrow(() -> new ManufacturerNotFoundException(manufacturerName));
+    }
+
+    private void record(Collection<Drug> drugs, boolean insertMissing) {
+        Map<UUID, Drug> identified = new LinkedHashMap<>();
+        List<Drug> unidentified = new ArrayList<>();
+        for (Drug drug : drugs) {
+            if (drug.getUid() != null) {
+                identified.put(drug.getUid(), drug);
+            } else {
+                unidentified.add(drug);
+            }
+        }
+
+        Totals totals = new Totals();
+        for (DrugStock stock : drugRepository.lockStock(identified.keySet())) {
+            Drug drug = identified.remove(stock.uid());
+            totals.remove(stock.manufacturerId(), stock.quantity(), stock.price());
+            totals.add(drug.getManufacturerId(), drug.getQuantity(), drug.getPrice());
+        }
+        if (insertMissing) {
+            for (Drug drug : identified.values()) {
+                totals.add(drug.getManufacturerId(), drug.getQuantity(), drug.getPrice());
+            }
+            for (Drug drug : unidentified) {
+                totals.add(drug.getManufacturerId(), drug.getQuantity(), drug.getPrice());
+            }
+        }
+        totals.applyTo(manufacturerRepository);
+    }
+
+    private static ManufacturerInventoryDTO toDTO(Manufacturer manufacturer) {
+        return ManufacturerInventoryDTO.builder()
+                .manufacturerName(manufacturer.getName())
+                .drugCount(manufacturer.getDrugCount())
+                .totalUnits(manufacturer.getTotalUnits())
+                .stockValue(manufacturer.getStockValue())
+                .build();
+    }
+
+    // Net change per manufacturer; manufacturers whose totals do not move are not updated, so their rows stay unlocked
+    private static final class Totals {
+        private final Map<Integer, Total> byManufacturer = new HashMap<>();
+
+        void add(int manufacturerId, int quantity, BigDecimal price) {
+            change(manufacturerId, 1, quantity, price);
+        }
+
+        void remove(int manufacturerId, int quantity, BigDecimal price) {
+            change(manufacturerId, -1, -quantity, price);
+        }
+
+        void adjust(int manufacturerId, int delta, BigDecimal price) {
+            change(manufacturerId, 0, delta, price);
+        }
+
+        private void change(int manufacturerId, int drugs, long units, BigDecimal price) {
+            Total total = byManufacturer.computeIfAbsent(manufacturerId, id -> new Total());
+            total.drugs += drugs;
+            total.units += units;
+            total.value = total.value.add(price.multiply(BigDecimal.valueOf(units)));
+        }
+
+        void applyTo(ManufacturerRepository manufacturerRepository) {
+            Map<Integer, StockDelta> deltas = new HashMap<>();
+            byManufacturer.forEach((id, total) -> {
+                if (total.drugs != 0 || total.units != 0 || total.value.signum() != 0) {
+                    deltas.put(id, new StockDelta(total.drugs, total.units, total.value));
+                }
+            });
+            if (!deltas.isEmpty()) {
+                manufacturerRepository.applyStockDeltas(deltas);
+            }
+        }
+    }
+
+    private static final class Total {
+        private long drugs;
+        private long units;
+        private BigDecimal value = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,132 @@
+package com.surecostproject.takehome.job;
+
+import com.surecostproject.takehome.dto.BulkJobDTO;
+import com.surecostproject.takehome.entity.Drug;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * State of one submitted bulk job. Progress is written by a single worker thread and read by
+ * status polls, so plain volatile fields are enough.
+ */
+class BulkJob {
+    private final UUID id;
+    private final BulkJobOperation operation;
+    private final int totalItems;
+    private final int maxReportedErrors;
+    private final Instant submittedAt = Instant.now();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    // Released once the job finishes so completed jobs kept for polling hold no payload
+    private volatile List<Drug> drugs;
+    private volatile List<UUID> ids;
+
+    private volatile BulkJobStatus status = BulkJobStatus.QUEUED;
+    private volatile int succeededItems;
+    private volatile int failedItems;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    private BulkJob(BulkJobOperation operation, List<Drug> drugs, List<UUID> ids, int totalItems, int maxReportedErrors) {
+        this.id = UUID.randomUUID();
+        this.operation = operation;
+        this.drugs = drugs;
+        this.ids = ids;
+        this.totalItems = totalItems;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    static BulkJob ofDrugs(BulkJobOperation operation, List<Drug> drugs, int maxReportedErrors) {
+        return new BulkJob(operation, drugs, List.of(), drugs.size(), maxReportedErrors);
+    }
+
+    static BulkJob ofIds(List<UUID> ids, int maxReportedErrors) {
+        return new BulkJob(BulkJobOperation.DELETE, List.of(), ids, ids.size(), maxReportedErrors);
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    BulkJobOperation getOperation() {
+        return operation;
+    }
+
+    int getTotalItems() {
+        return totalItems;
+    }
+
+    List<Drug> getDrugs() {
+        return drugs;
+    }
+
+    List<UUID> getIds() {
+        return ids;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = BulkJobStatus.RUNNING;
+    }
+
+    void chunkSucceeded(int items) {
+        succeededItems += items;
+    }
+
+    void chunkFailed(int items, List<String> chunkErrors) {
+        failedItems += items;
+        for (String error : chunkErrors) {
+            if (errors.size() >= maxReportedErrors) {
+                break;
+            }
+            errors.add(error);
+        }
+    }
+
+    void finish(BulkJobStatus finalStatus) {
+        drugs = List.of();
+        ids = List.of();
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    BulkJobDTO toDTO() {
+        // Read status first: once it is finished, the counters and timestamps are final as well
+        BulkJobStatus currentStatus = status;
+        int succeeded = succeededItems;
+        int failed = failedItems;
+        int processed = succeeded + failed;
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+
+        double itemsPerSecond = 0;
+        if (started != null) {
+            long elapsedMillis = Duration.between(started, finished != null ? finished : Instant.now()).toMillis();
+            itemsPerSecond = elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0;
+        }
+
+        return BulkJobDTO.builder()
+                .jobId(id)
+                .operation(operation)
+                .status(currentStatus)
+                .totalItems(totalItems)
+                .processedItems(processed)
+                .succeededItems(succeeded)
+                .failedItems(failed)
+                .percentComplete(totalItems > 0 ? processed * 100.0 / totalItems : 100)
+                .itemsPerSecond(itemsPerSecond)
+                .submittedAt(submittedAt)
+                .startedAt(started)
+                .finishedAt(finished)
+                .errors(List.copyOf(errors))
+                .build();
+    }
+}
@@ -0,0 +1,5 @@
+package com.surecostproject.takehome.job;
+
+public enum BulkJobOperation {
+    CREATE, UPDATE, DELETE
+}
@@ -0,0 +1,163 @@
+package com.surecostproject.takehome.job;
+
+import com.surecostproject.takehome.dto.BulkJobDTO;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.exception.BulkJobNotFoundException;
+import com.surecostproject.takehome.exception.BulkJobRejectedException;
+import com.surecostproject.takehome.exception.BulkProcessingException;
+import com.surecostproject.takehome.service.DrugService;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs bulk create, update and delete requests in the background. Each job is split into chunks
+ * that go through {@link DrugService} one at a time, so every chunk commits in its own transaction
+ * and a failing chunk is reported without undoing the ones before it.
+ * <p>
+ * Jobs run on a dedicated, bounded pool so long loads never compete with request handling or the
+ * application task executor; submissions beyond the queue capacity are rejected. With
+ * {@code spring.threads.virtual.enabled} the workers are virtual threads under the same limits.
+ */
+@Slf4j
+@Service
+public class BulkJobService {
+    private final DrugService drugService;
+    private static final int AWAIT_TERMINATION_SECONDS = 30;
+
+    private final TaskExecutor executor;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final Duration retention;
+    private final Map<UUID, BulkJob> jobs = new ConcurrentHashMap<>();
+
+    public BulkJobService(DrugService drugService,
+                          @Value("${drug.jobs.workers:2}") int workers,
+                          @Value("${drug.jobs.queue-capacity:10}") int queueCapacity,
+                          @Value("${drug.jobs.chunk-size:1000}") int chunkSize,
+                          @Value("${drug.jobs.max-reported-errors:100}") int maxReportedErrors,
+                          @Value("${drug.jobs.retention:PT1H}") Duration retention,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.drugService = drugService;
+        this.executor = virtualThreads
+                ? new VirtualThreadJobExecutor(workers, queueCapacity, AWAIT_TERMINATION_SECONDS * 1000L)
+                : platformThreadExecutor(workers, queueCapacity);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.retention = retention;
+    }
+
+    private static ThreadPoolTaskExecutor platformThreadExecutor(int workers, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(AWAIT_TERMINATION_SECONDS);
+        executor.initialize();
+        return executor;
+    }
+
+    public BulkJobDTO submitDrugs(BulkJobOperation operation, List<Drug> drugs) {
+        if (operation == BulkJobOperation.DELETE) {
+            throw new IllegalArgumentException("Delete jobs are submitted with ids");
+        }
+        return submit(BulkJob.ofDrugs(operation, drugs, maxReportedErrors));
+    }
+
+    public BulkJobDTO submitDeletion(List<UUID> ids) {
+        return submit(BulkJob.ofIds(ids, maxReportedErrors));
+    }
+
+    public BulkJobDTO getJob(UUID id) {
+        BulkJob job = jobs.get(id);
+        if (job == null) {
+            throw new BulkJobNotFoundException(id);
+        }
+        return job.toDTO();
+    }
+
+    private BulkJobDTO submit(BulkJob job) {
+        evictExpiredJobs();
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw new BulkJobRejectedException("Too many bulk jobs in progress, retry later");
+        }
+        return job.toDTO();
+    }
+
+    private void run(BulkJob job) {
+        job.start();
+        log.info("Bulk {} job {} started with {} items", job.getOperation(), job.getId(), job.getTotalItems());
+        try {
+            for (int from = 0; from < job.getTotalItems(); from += chunkSize) {
+                int to = Math.min(job.getTotalItems(), from + chunkSize);
+                processChunk(job, from, to);
+            }
+            BulkJobDTO result = job.toDTO();
+            job.finish(result.getFailedItems() == 0 ? BulkJobStatus.COMPLETED : BulkJobStatus.COMPLETED_WITH_ERRORS);
+            log.info("Bulk {} job {} finished: {} succeeded, {} failed", job.getOperation(), job.getId(),
+                    result.getSucceededItems(), result.getFailedItems());
+        } catch (RuntimeException e) {
+            log.error("Bulk {} job {} failed", job.getOperation(), job.getId(), e);
+            // Items that were never processed count as failed, so succeeded + failed still equals the total
+            BulkJobDTO progress = job.toDTO();
+            int unprocessed = job.getTotalItems() - progress.getSucceededItems() - progress.getFailedItems();
+            job.chunkFailed(unprocessed, List.of("Job aborted: " + e.getMessage()));
+            job.finish(BulkJobStatus.FAILED);
+        }
+    }
+
+    private void processChunk(BulkJob job, int from, int to) {
+        try {
+            switch (job.getOperation()) {
+                case CREATE -> drugService.createBulkDrugs(job.getDrugs().subList(from, to));
+                case UPDATE -> drugService.updateBulkDrugs(job.getDrugs().subList(from, to));
+                case DELETE -> drugService.deleteBulkDrugs(job.getIds().subList(from, to));
+            }
+            job.chunkSucceeded(to - from);
+        } catch (BulkProcessingException e) {
+            // DrugService indexes its errors relative to the chunk
+            String prefix = String.format("Chunk starting at index %d: ", from);
+            List<String> errors = e.getErrors() == null || e.getErrors().isEmpty()
+                    ? List.of(prefix + e.getMessage())
+                    : e.getErrors().stream().map(error -> prefix + error).toList();
+            job.chunkFailed(to - from, errors);
+        } catch (RuntimeException e) {
+            // Database, transaction or row-level failures only cost this chunk; later chunks still run
+            log.warn("Bulk {} job {} chunk starting at index {} failed", job.getOperation(), job.getId(), from, e);
+            job.chunkFailed(to - from, List.of(String.format("Chunk starting at index %d: %s",
+                    from, NestedExceptionUtils.getMostSpecificCause(e).getMessage())));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof VirtualThreadJobExecutor virtualThreads) {
+            virtualThreads.close();
+        } else {
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        }
+    }
+
+    private void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,9 @@
+package com.surecostproject.takehome.job;
+
+public enum BulkJobStatus {
+    QUEUED, RUNNING, COMPLETED, COMPLETED_WITH_ERRORS, FAILED;
+
+    public boolean isFinished() {
+        return this != QUEUED && this != RUNNING;
+    }
+}
@@ -0,0 +1,57 @@
+package com.surecostproject.takehome.job;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulk job executor used with {@code spring.threads.virtual.enabled}. Every job gets a virtual thread at
+ * once and waits on it for one of the worker slots, so the submitting request never blocks. As with the
+ * platform pool, a job is rejected while all workers are busy and the queue capacity is used up.
+ */
+class VirtualThreadJobExecutor implements TaskExecutor, AutoCloseable {
+    private final SimpleAsyncTaskExecutor threads = new SimpleAsyncTaskExecutor("bulk-job-");
+    private final Semaphore workerSlots;
+    private final Semaphore admissions;
+
+    VirtualThreadJobExecutor(int workers, int queueCapacity, long terminationTimeoutMillis) {
+        threads.setVirtualThreads(true);
+        threads.setTaskTerminationTimeout(terminationTimeoutMillis);
+        this.workerSlots = new Semaphore(workers);
+        this.admissions = new Semaphore(workers + queueCapacity);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admissions.tryAcquire()) {
+            throw new TaskRejectedException("Bulk job executor is at capacity");
+        }
+        try {
+            threads.execute(() -> {
+                try {
+                    workerSlots.acquireUninterruptibly();
+                    try {
+                        task.run();
+                    } finally {
+                        workerSlots.release();
+                    }
+                } finally {
+                    admissions.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            admissions.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops accepting jobs and waits up to the termination timeout for the ones already submitted.
+     */
+    @Override
+    public void close() {
+        threads.close();
+    }
+}
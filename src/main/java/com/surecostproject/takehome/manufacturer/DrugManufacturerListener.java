@@ -0,0 +1,38 @@
+package com.surecostproject.takehome.manufacturer;
+
+import com.surecostproject.takehome.entity.Drug;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the transient manufacturer name of a drug and its manufacturer id in step. Created by
+ * Hibernate through Spring; the dictionary is looked up lazily because it depends on the
+ * entity manager factory that creates this listener.
+ */
+@Component
+public class DrugManufacturerListener {
+    private final ObjectProvider<ManufacturerDictionary> dictionary;
+
+    public DrugManufacturerListener(ObjectProvider<ManufacturerDictionary> dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @PostLoad
+    public void fillName(Drug drug) {
+        drug.assignManufacturer(drug.getManufacturerId(), dictionary.getObject().nameOf(drug.getManufacturerId()));
+    }
+
+    // A merged copy has the id but not the transient name; a renamed drug has the name but no id
+    @PrePersist
+    @PreUpdate
+    public void resolve(Drug drug) {
+        if (drug.getManufacturerId() == null) {
+            dictionary.getObject().assignId(drug);
+        } else if (drug.getManufacturerName() == null) {
+            fillName(drug);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.surecostproject.takehome.manufacturer;
+
+import com.surecostproject.takehome.datasource.ReadRouting;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.entity.Manufacturer;
+import com.surecostproject.takehome.repository.ManufacturerRepository;
+import com.surecostproject.takehome.search.SearchNormalizer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the manufacturer table, mapping normalized names to their integer ids and
+ * ids back to one shared name instance. Drugs store only the id; loaded drugs get their name from
+ * here, so every drug of a manufacturer points at the same String.
+ *
+ * The table is loaded from the primary at startup. An unknown manufacturer is inserted in a short transaction of
+ * its own, so the id stays valid even if the write that introduced it rolls back, and a concurrent
+ * insert of the same name by another write or instance is read back instead of failing that write.
+ * No lock is held around the insert, so a write waiting for one never holds up writes that only
+ * need known manufacturers. Ids missing from memory, e.g. inserted by another instance, are read
+ * from the table on first use, in the caller's transaction if there is one.
+ */
+@Slf4j
+@Component
+public class ManufacturerDictionary {
+    private final ConcurrentHashMap<String, Integer> idsBySearchName = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Entry> entriesById = new ConcurrentHashMap<>();
+    private final ManufacturerRepository manufacturerRepository;
+    private final ReadRouting readRouting;
+    // Joins the caller's transaction if there is one
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate insertTransaction;
+
+    public ManufacturerDictionary(ManufacturerRepository manufacturerRepository,
+                                  ReadRouting readRouting,
+                                  PlatformTransactionManager transactionManager) {
+        this.manufacturerRepository = manufacturerRepository;
+        this.readRouting = readRouting;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.insertTransaction = new TransactionTemplate(transactionManager);
+        this.insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    private record Entry(int id, String name, String searchName) {
+    }
+
+    @PostConstruct
+    void load() {
+        readRouting.runOnPrimary(() -> manufacturerRepository.findAll().forEach(this::register));
+        log.info("Manufacturer dictionary loaded with {} manufacturers", entriesById.size());
+    }
+
+    /**
+     * Returns the id of the manufacturer, creating it if this spelling has not been seen before.
+     */
+    public int idFor(String name) {
+        String searchName = SearchNormalizer.normalize(name);
+        Integer id = idsBySearchName.get(searchName);
+        return id != null ? id : create(name.trim(), searchName).id();
+    }
+
+    /**
+     * Returns the id of an existing manufacturer without creating one.
+     */
+    public Optional<Integer> findId(String name) {
+        return Optional.ofNullable(idsBySearchName.get(SearchNormalizer.normalize(name)));
+    }
+
+    public String nameOf(int id) {
+        Entry entry = entriesById.get(id);
+        if (entry == null) {
+            entry = transaction.execute(status -> manufacturerRepository.findById(id).map(this::register).orElse(null));
+        }
+        return entry != null ? entry.name() : null;
+    }
+
+    /**
+     * Ids of manufacturers whose normalized name contains the term. The scan runs over distinct
+     * manufacturers, which are far fewer than drugs.
+     */
+    public List<Integer> idsContaining(String term) {
+        String normalized = SearchNormalizer.normalize(term);
+        List<Integer> ids = new ArrayList<>();
+        for (Entry entry : entriesById.values()) {
+            if (entry.searchName().contains(normalized)) {
+                ids.add(entry.id());
+            }
+        }
+        return ids;
+    }
+
+    public List<Integer> idsStartingWith(String prefix) {
+        String normalized = SearchNormalizer.normalize(prefix);
+        List<Integer> ids = new ArrayList<>();
+        for (Entry entry : entriesById.values()) {
+            if (entry.searchName().startsWith(normalized)) {
+                ids.add(entry.id());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Resolves the manufacturer id of every drug that does not have one yet. Needed before writes
+     * that do not go through the entity listener, such as merges and JDBC batch updates. Each
+     * unknown manufacturer is created once, however many of the drugs name it.
+     */
+    public void assignIds(Collection<Drug> drugs) {
+        Map<String, String> unknown = new LinkedHashMap<>();
+        for (Drug drug : drugs) {
+            if (drug.getManufacturerId() == null && drug.getManufacturerName() != null) {
+                String searchName = SearchNormalizer.normalize(drug.getManufacturerName());
+                if (!idsBySearchName.containsKey(searchName)) {
+                    unknown.putIfAbsent(searchName, drug.getManufacturerName().trim());
+                }
+            }
+        }
+        Map<String, Entry> created = new HashMap<>();
+        unknown.forEach((searchName, name) -> created.put(searchName, create(name, searchName)));
+        for (Drug drug : drugs) {
+            if (drug.getManufacturerId() == null && drug.getManufacturerName() != null) {
+                Entry entry = created.get(SearchNormalizer.normalize(drug.getManufacturerName()));
+                if (entry != null) {
+                    drug.assignManufacturer(entry.id(), entry.name());
+                } else {
+                    assignId(drug);
+                }
+            }
+        }
+    }
+
+    public void assignId(Drug drug) {
+        if (drug.getManufacturerId() == null && drug.getManufacturerName() != null) {
+            int id = idFor(drug.getManufacturerName());
+            drug.assignManufacturer(id, nameOf(id));
+        }
+    }
+
+    private Entry create(String name, String searchName) {
+        Manufacturer manufacturer;
+        try {
+            manufacturer = insertTransaction.execute(status -> manufacturerRepository.findBySearchName(searchName)
+                    .orElseGet(() -> manufacturerRepository.saveAndFlush(new Manufacturer(name, searchName))));
+        } catch (DataIntegrityViolationException e) {
+            // Another write or instance inserted the same manufacturer first
+            manufacturer = insertTransaction.execute(status -> manufacturerRepository.findBySearchName(searchName)
+                    .orElseThrow(() -> e));
+        }
+        return register(manufacturer);
+    }
+
+    private Entry register(Manufacturer manufacturer) {
+        return register(new Entry(manufacturer.getId(), manufacturer.getName(), manufacturer.getSearchName()));
+    }
+
+    private Entry register(Entry entry) {
+        entriesById.put(entry.id(), entry);
+        idsBySearchName.put(entry.searchName(), entry.id());
+        return entry;
+    }
+}
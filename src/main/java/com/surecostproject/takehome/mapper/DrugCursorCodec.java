@@ -0,0 +1,101 @@
+package com.surecostproject.takehome.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.surecostproject.takehome.exception.InvalidDrugRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Converts between opaque continuation tokens and keyset scroll positions. A token carries the sort
+ * it was issued for plus the sort key and uid of the last row, so the next slice starts right after it.
+ */
+@Component
+@RequiredArgsConstructor
+public class DrugCursorCodec {
+    private static final String ID_PROPERTY = "uid";
+    // API sort field -> entity path it sorts on; manufacturerName is read through the manufacturer join
+    private static final Map<String, SortProperty> SORT_PROPERTIES = Map.of(
+            "name", new SortProperty("name", value -> value),
+            "manufacturerName", new SortProperty("manufacturer.name", value -> value),
+            "quantity", new SortProperty("quantity", Integer::valueOf),
+            "price", new SortProperty("price", BigDecimal::new));
+
+    private final ObjectMapper objectMapper;
+
+    public record DrugCursor(Sort sort, KeysetScrollPosition position) {
+    }
+
+    private record SortProperty(String path, Function<String, Object> parser) {
+    }
+
+    private record Token(String sortBy, Sort.Direction direction, String value, String uid) {
+    }
+
+    /**
+     * Decodes the cursor if present, otherwise starts at the beginning of the given sort.
+     */
+    public DrugCursor resolve(String cursor, String sortBy, String direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return new DrugCursor(sort(sortBy, parseDirection(direction)), ScrollPosition.keyset());
+        }
+        return decode(cursor);
+    }
+
+    public String encode(Sort sort, ScrollPosition position) {
+        Sort.Order order = sort.iterator().next();
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        String sortBy = SORT_PROPERTIES.entrySet().stream()
+                .filter(entry -> entry.getValue().path().equals(order.getProperty()))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow();
+        Token token = new Token(sortBy, order.getDirection(),
+                String.valueOf(keys.get(order.getProperty())), String.valueOf(keys.get(ID_PROPERTY)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(token));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cursor could not be encoded", e);
+        }
+    }
+
+    private DrugCursor decode(String cursor) {
+        try {
+            Token token = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), Token.class);
+            if (token.value() == null || token.uid() == null) {
+                throw new InvalidDrugRequestException("Invalid cursor");
+            }
+            Sort sort = sort(token.sortBy(), token.direction());
+            SortProperty property = SORT_PROPERTIES.get(token.sortBy());
+            return new DrugCursor(sort, ScrollPosition.forward(
+                    Map.of(property.path(), property.parser().apply(token.value()), ID_PROPERTY, UUID.fromString(token.uid()))));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidDrugRequestException("Invalid cursor");
+        }
+    }
+
+    private static Sort sort(String sortBy, Sort.Direction direction) {
+        if (sortBy == null || !SORT_PROPERTIES.containsKey(sortBy)) {
+            throw new InvalidDrugRequestException("Cursor pagination supports sorting by " + SORT_PROPERTIES.keySet());
+        }
+        // uid breaks ties so every row has a unique position
+        return Sort.by(direction, SORT_PROPERTIES.get(sortBy).path()).and(Sort.by(direction, ID_PROPERTY));
+    }
+
+    private static Sort.Direction parseDirection(String direction) {
+        try {
+            return Sort.Direction.fromString(direction);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDrugRequestException("Sort direction must be asc or desc");
+        }
+    }
+}
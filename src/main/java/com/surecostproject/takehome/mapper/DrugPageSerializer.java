@@ -0,0 +1,43 @@
+package com.surecostproject.takehome.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.surecostproject.takehome.dto.DrugPageDTO;
+import com.surecostproject.takehome.dto.DrugView;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link DrugPageDTO} field by field to the generator, without bean introspection or
+ * per-row serializer lookups. Rows are written in the same shape as {@link DrugView}.
+ */
+public class DrugPageSerializer extends StdSerializer<DrugPageDTO> {
+
+    public DrugPageSerializer() {
+        super(DrugPageDTO.class);
+    }
+
+    @Override
+    public void serialize(DrugPageDTO page, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("content");
+        for (DrugView drug : page.getContent()) {
+            generator.writeStartObject();
+            generator.writeStringField("uid", drug.uid().toString());
+            generator.writeStringField("name", drug.name());
+            generator.writeStringField("manufacturerName", drug.manufacturerName());
+            generator.writeNumberField("quantity", drug.quantity());
+            generator.writeNumberField("price", drug.price());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeNumberField("page", page.getPage());
+        generator.writeNumberField("size", page.getSize());
+        generator.writeBooleanField("hasNext", page.isHasNext());
+        if (page.getTotalElements() != null) {
+            generator.writeNumberField("totalElements", page.getTotalElements());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,38 @@
+package com.surecostproject.takehome.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Application-specific meters. Summaries are registered once up front so recording on the
+ * hot path is a map lookup and an increment, never a registry lookup.
+ */
+@Component
+public class DrugMetrics {
+
+    public enum BulkOperation {
+        CREATE, UPDATE, DELETE, IMPORT_CHUNK, INVENTORY_FLUSH
+    }
+
+    private final Map<BulkOperation, DistributionSummary> bulkBatchSizes = new EnumMap<>(BulkOperation.class);
+
+    public DrugMetrics(MeterRegistry registry) {
+        for (BulkOperation operation : BulkOperation.values()) {
+            bulkBatchSizes.put(operation, DistributionSummary.builder("drug.bulk.batch.size")
+                    .description("Number of drugs per bulk operation")
+                    .baseUnit("drugs")
+                    .tag("operation", operation.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    public void recordBulkBatch(BulkOperation operation, int size) {
+        bulkBatchSizes.get(operation).record(size);
+    }
+}
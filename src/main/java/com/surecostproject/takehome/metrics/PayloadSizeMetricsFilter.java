@@ -0,0 +1,223 @@
+package com.surecostproject.takehome.metrics;
+
+import com.surecostproject.takehome.config.GzipRequestFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Records request and response body sizes per endpoint for the drug API. Bytes are counted as they
+ * pass through the servlet streams, so chunked uploads and streamed exports are measured too
+ * without buffering anything. The filter runs before {@link GzipRequestFilter}, so compressed
+ * request bodies are counted as received; response sizes are counted before the container compresses them.
+ * Summaries are registered once per name, method and endpoint and looked up from a map after that;
+ * methods outside the standard set are tagged OTHER, so clients cannot create meters at will.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class PayloadSizeMetricsFilter extends OncePerRequestFilter {
+    private static final Set<String> METHODS = Arrays.stream(HttpMethod.values())
+            .map(HttpMethod::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<SummaryKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public PayloadSizeMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingRequest countingRequest = new CountingRequest(request);
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            chain.doFilter(countingRequest, countingResponse);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordOnComplete(request, countingRequest, countingResponse));
+            } else {
+                record(request, countingRequest.bytes, countingResponse.bytes);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long requestBytes, long responseBytes) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = METHODS.contains(request.getMethod()) ? request.getMethod() : "OTHER";
+        summary("http.server.request.size", method, uri).record(requestBytes);
+        summary("http.server.response.size", method, uri).record(responseBytes);
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return summaries.computeIfAbsent(new SummaryKey(name, method, uri), key -> DistributionSummary.builder(key.name())
+                .baseUnit("bytes")
+                .tag("method", key.method())
+                .tag("uri", key.uri())
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(registry));
+    }
+
+    private record SummaryKey(String name, String method, String uri) {
+    }
+
+    private final class RecordOnComplete implements AsyncListener {
+        private final HttpServletRequest request;
+        private final CountingRequest countingRequest;
+        private final CountingResponse countingResponse;
+
+        private RecordOnComplete(HttpServletRequest request, CountingRequest countingRequest, CountingResponse countingResponse) {
+            this.request = request;
+            this.countingRequest = countingRequest;
+            this.countingResponse = countingResponse;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, countingRequest.bytes, countingResponse.bytes);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private static final class CountingRequest extends HttpServletRequestWrapper {
+        private volatile long bytes;
+        private ServletInputStream stream;
+
+        private CountingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                ServletInputStream delegate = super.getInputStream();
+                stream = new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        int b = delegate.read();
+                        if (b >= 0) {
+                            bytes++;
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int read = delegate.read(buffer, offset, length);
+                        if (read > 0) {
+                            bytes += read;
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return delegate.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener listener) {
+                        delegate.setReadListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private volatile long bytes;
+        private ServletOutputStream stream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] buffer, int offset, int length) throws IOException {
+                        delegate.write(buffer, offset, length);
+                        bytes += length;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+}
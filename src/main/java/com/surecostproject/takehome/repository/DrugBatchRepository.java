@@ -0,0 +1,72 @@
+package com.surecostproject.takehome.repository;
+
+import com.surecostproject.takehome.entity.Drug;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Set-based and streaming operations for bulk and export endpoints, which the standard
+ * repository methods would run row by row or with the whole table in memory.
+ */
+public interface DrugBatchRepository {
+
+    record DrugStock(UUID uid, int manufacturerId, int quantity, BigDecimal price) {
+    }
+
+    record DrugRow(UUID uid, String name, String nameSearch, int manufacturerId, int quantity, BigDecimal price, long version) {
+    }
+
+    /**
+     * Returns the subset of the given ids that exist, resolved with chunked IN queries.
+     */
+    Set<UUID> findExistingIds(Collection<UUID> ids);
+
+    /**
+     * Locks the rows of the given ids with SELECT ... FOR UPDATE, in uid order, and returns what each
+     * contributes to its manufacturer's inventory totals. Ids without a row are left out.
+     */
+    List<DrugStock> lockStock(Collection<UUID> ids);
+
+    /**
+     * Writes all fields of the given drugs with batched UPDATE statements, without loading them first.
+     * Returns the indices of drugs whose row no longer existed.
+     */
+    List<Integer> batchUpdate(List<Drug> drugs);
+
+    /**
+     * Adds each delta to the quantity of its drug with batched atomic
+     * UPDATE ... SET quantity = quantity + ? statements that refuse to take stock below zero.
+     * Returns the ids whose delta was not applied, because the row is gone or the stock was too low.
+     */
+    Set<UUID> batchAdjustQuantities(Map<UUID, Integer> deltas);
+
+    /**
+     * Deletes the given ids with chunked DELETE ... WHERE uid IN (...) statements, without loading the entities.
+     * Returns the number of rows deleted.
+     */
+    int deleteAllByIdInChunks(Collection<UUID> ids);
+
+    /**
+     * Streams every drug through a forward-only cursor, detaching each entity once the action has seen it
+     * so the persistence context does not grow with the table. Must run inside a transaction.
+     * Returns the number of drugs visited.
+     */
+    long forEachDrug(int fetchSize, Consumer<Drug> action);
+
+    /**
+     * Streams the columns of every drug as plain rows through a forward-only cursor, without entities.
+     * Returns the number of rows visited.
+     */
+    long forEachRow(int fetchSize, Consumer<DrugRow> action);
+
+    /**
+     * Returns the rows of the given ids, resolved with chunked IN queries. Ids without a row are left out.
+     */
+    List<DrugRow> findRows(Collection<UUID> ids);
+}
@@ -0,0 +1,204 @@
+package com.surecostproject.takehome.repository;
+
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.manufacturer.ManufacturerDictionary;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+class DrugBatchRepositoryImpl implements DrugBatchRepository {
+    // Keeps IN lists well below the parameter limits of H2, MySQL and PostgreSQL
+    static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    private static final String UPDATE_SQL =
+            "UPDATE drug SET name = ?, manufacturer_id = ?, quantity = ?, price = ?, name_search = ?, version = version + 1 WHERE uid = ?";
+
+    private static final String LOCK_STOCK_SQL =
+            "SELECT uid, manufacturer_id, quantity, price FROM drug WHERE uid IN (%s) ORDER BY uid FOR UPDATE";
+
+    private static final String ROW_SQL =
+            "SELECT uid, name, name_search, manufacturer_id, quantity, price, version FROM drug";
+
+    private static final String ADJUST_QUANTITY_SQL =
+            "UPDATE drug SET quantity = quantity + ?, version = version + 1 WHERE uid = ? AND quantity + ? >= 0";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ManufacturerDictionary manufacturerDictionary;
+    private final int batchSize;
+
+    DrugBatchRepositoryImpl(EntityManager entityManager,
+                            JdbcTemplate jdbcTemplate,
+                            ManufacturerDictionary manufacturerDictionary,
+                            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.manufacturerDictionary = manufacturerDictionary;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Set<UUID> findExistingIds(Collection<UUID> ids) {
+        Set<UUID> existing = new HashSet<>(ids.size());
+        for (List<UUID> chunk : distinctChunks(ids)) {
+            existing.addAll(entityManager
+                    .createQuery("select d.uid from Drug d where d.uid in :ids", UUID.class)
+                    .setParameter("ids", chunk)
+                    .getResultList());
+        }
+        return existing;
+    }
+
+    @Override
+    public List<DrugStock> lockStock(Collection<UUID> ids) {
+        List<DrugStock> stock = new ArrayList<>(ids.size());
+        for (List<UUID> chunk : distinctChunks(ids)) {
+            String sql = LOCK_STOCK_SQL.formatted(String.join(", ", Collections.nCopies(chunk.size(), "?")));
+            stock.addAll(jdbcTemplate.query(sql, (rs, rowNum) -> new DrugStock(
+                    rs.getObject("uid", UUID.class),
+                    rs.getInt("manufacturer_id"),
+                    rs.getInt("quantity"),
+                    rs.getBigDecimal("price")), chunk.toArray()));
+        }
+        return stock;
+    }
+
+    @Override
+    public List<Integer> batchUpdate(List<Drug> drugs) {
+        // The statement bypasses the entity listener, so manufacturer ids are resolved up front
+        manufacturerDictionary.assignIds(drugs);
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, drugs, batchSize, (ps, drug) -> {
+            ps.setString(1, drug.getName());
+            ps.setInt(2, drug.getManufacturerId());
+            ps.setInt(3, drug.getQuantity());
+            ps.setBigDecimal(4, drug.getPrice());
+            ps.setString(5, drug.getNameSearch());
+            ps.setObject(6, drug.getUid());
+        });
+
+        List<Integer> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(index);
+                }
+                index++;
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public Set<UUID> batchAdjustQuantities(Map<UUID, Integer> deltas) {
+        List<Map.Entry<UUID, Integer>> entries = new ArrayList<>(deltas.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(ADJUST_QUANTITY_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setObject(2, entry.getKey());
+            ps.setInt(3, entry.getValue());
+        });
+
+        Set<UUID> rejected = new HashSet<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    rejected.add(entries.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    public int deleteAllByIdInChunks(Collection<UUID> ids) {
+        int deleted = 0;
+        for (List<UUID> chunk : distinctChunks(ids)) {
+            deleted += entityManager
+                    .createQuery("delete from Drug d where d.uid in :ids")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+        return deleted;
+    }
+
+    @Override
+    public long forEachDrug(int fetchSize, Consumer<Drug> action) {
+        long visited = 0;
+        try (Stream<Drug> drugs = entityManager.createQuery("select d from Drug d", Drug.class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<Drug> iterator = drugs.iterator();
+            while (iterator.hasNext()) {
+                Drug drug = iterator.next();
+                action.accept(drug);
+                entityManager.detach(drug);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    @Override
+    public long forEachRow(int fetchSize, Consumer<DrugRow> action) {
+        long[] visited = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ROW_SQL);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (ResultSet rs) -> {
+            action.accept(toRow(rs));
+            visited[0]++;
+        });
+        return visited[0];
+    }
+
+    @Override
+    public List<DrugRow> findRows(Collection<UUID> ids) {
+        List<DrugRow> rows = new ArrayList<>(ids.size());
+        for (List<UUID> chunk : distinctChunks(ids)) {
+            String sql = ROW_SQL + " WHERE uid IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            rows.addAll(jdbcTemplate.query(sql, (rs, rowNum) -> toRow(rs), chunk.toArray()));
+        }
+        return rows;
+    }
+
+    private static DrugRow toRow(ResultSet rs) throws SQLException {
+        return new DrugRow(
+                rs.getObject("uid", UUID.class),
+                rs.getString("name"),
+                rs.getString("name_search"),
+                rs.getInt("manufacturer_id"),
+                rs.getInt("quantity"),
+                rs.getBigDecimal("price"),
+                rs.getLong("version"));
+    }
+
+    private static List<List<UUID>> distinctChunks(Collection<UUID> ids) {
+        List<UUID> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            chunks.add(distinctIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size())));
+        }
+        return chunks;
+    }
+}
@@ -1,21 +1,30 @@
 package com.surecostproject.takehome.repository;
 
 import com.surecostproject.takehome.entity.Drug;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface DrugRepository extends JpaRepository<Drug, UUID> {
+public interface DrugRepository extends JpaRepository<Drug, UUID>, JpaSpecificationExecutor<Drug>, DrugBatchRepository, DrugViewRepository {
     // Custom query methods for search functionality with pagination
     Page<Drug> findByNameContainingIgnoreCase(String name, Pageable pageable);
     
-    Page<Drug> findByManufacturerNameContainingIgnoreCase(String manufacturerName, Pageable pageable);
-    
     Page<Drug> findByPriceLessThanEqual(BigDecimal maxPrice, Pageable pageable);
     
     Page<Drug> findByPriceGreaterThanEqual(BigDecimal minPrice, Pageable pageable);
@@ -23,4 +32,29 @@ public interface DrugRepository extends JpaRepository<Drug, UUID> {
     Page<Drug> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
     
     Page<Drug> findByQuantityGreaterThan(int minQuantity, Pageable pageable);
+
+    // Searches on the normalized column: terms must be passed through SearchNormalizer.
+    // StartingWith becomes LIKE 'term%', which is served by the name_search index.
+    Page<Drug> findByNameSearchContaining(String normalizedName, Pageable pageable);
+
+    Page<Drug> findByNameSearchStartingWith(String normalizedPrefix, Pageable pageable);
+
+
+    // Row lock held until commit, so concurrent writers of one drug queue instead of failing the version check
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Drug d where d.uid = :id")
+    Optional<Drug> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("select d.quantity from Drug d where d.uid = :id")
+    Optional<Integer> findQuantityById(@Param("id") UUID id);
+
+    // Keyset (seek) variants: no OFFSET and no count query, the sort key of the last row is the cursor
+    Window<Drug> findBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Drug> findByNameSearchContaining(String normalizedName, ScrollPosition position, Limit limit, Sort sort);
+
+    // Manufacturer searches are resolved to ids by ManufacturerDictionary first
+    Window<Drug> findByManufacturerIdIn(Collection<Integer> manufacturerIds, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Drug> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, ScrollPosition position, Limit limit, Sort sort);
 } 
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.surecostproject.takehome.repository;
+
+import com.surecostproject.takehome.dto.DrugSearchCriteria;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.search.SearchNormalizer;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds a single WHERE clause from the filters of a composite search. Only the filters that are
+ * present become predicates, so the database can pick an index for the combination actually asked for.
+ */
+public final class DrugSpecifications {
+
+    private DrugSpecifications() {
+    }
+
+    /**
+     * @param manufacturerId the id the criteria's manufacturer resolved to, or null to not filter by manufacturer
+     */
+    public static Specification<Drug> matching(DrugSearchCriteria criteria, Integer manufacturerId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (manufacturerId != null) {
+                predicates.add(cb.equal(root.get("manufacturerId"), manufacturerId));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getMinQuantity() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("quantity"), criteria.getMinQuantity()));
+            }
+            // Substring match cannot use an index, so it goes last and only filters what the others selected
+            if (hasText(criteria.getName())) {
+                String pattern = "%" + escapeLike(SearchNormalizer.normalize(criteria.getName())) + "%";
+                predicates.add(cb.like(root.get("nameSearch"), pattern, '\\'));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Drug> idIn(Collection<UUID> ids) {
+        return (root, query, cb) -> root.get("uid").in(ids);
+    }
+
+    public static Specification<Drug> nameContains(String normalizedName) {
+        return (root, query, cb) -> cb.like(root.get("nameSearch"), "%" + escapeLike(normalizedName) + "%", '\\');
+    }
+
+    // A LIKE 'term%' pattern that the name_search index can serve
+    public static Specification<Drug> nameStartsWith(String normalizedPrefix) {
+        return (root, query, cb) -> cb.like(root.get("nameSearch"), escapeLike(normalizedPrefix) + "%", '\\');
+    }
+
+    public static Specification<Drug> manufacturerIn(Collection<Integer> manufacturerIds) {
+        return (root, query, cb) -> root.get("manufacturerId").in(manufacturerIds);
+    }
+
+    public static Specification<Drug> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.between(root.get("price"), minPrice, maxPrice);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
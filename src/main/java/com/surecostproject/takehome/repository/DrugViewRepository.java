@@ -0,0 +1,34 @@
+package com.surecostproject.takehome.repository;
+
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.entity.Drug;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Read-only queries that select the drug columns as scalars and build {@link DrugView} records from
+ * them, so no entity is instantiated, snapshotted for dirty checking or held by the persistence context.
+ */
+public interface DrugViewRepository {
+
+    /**
+     * Returns a page of views matching the specification. The count query is skipped when the
+     * page shows the total is reached.
+     */
+    Page<DrugView> findViews(Specification<Drug> specification, Pageable pageable);
+
+    /**
+     * Returns a slice of views matching the specification without counting them. One extra row is
+     * read to tell whether another slice follows.
+     */
+    Slice<DrugView> findViewSlice(Specification<Drug> specification, Pageable pageable);
+
+    /**
+     * Returns all views matching the specification, in no particular order.
+     */
+    List<DrugView> findViews(Specification<Drug> specification);
+}
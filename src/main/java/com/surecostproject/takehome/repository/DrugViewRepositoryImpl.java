@@ -0,0 +1,108 @@
+package com.surecostproject.takehome.repository;
+
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.manufacturer.ManufacturerDictionary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Transactional(readOnly = true)
+class DrugViewRepositoryImpl implements DrugViewRepository {
+
+    private final EntityManager entityManager;
+    private final ManufacturerDictionary manufacturerDictionary;
+
+    DrugViewRepositoryImpl(EntityManager entityManager, ManufacturerDictionary manufacturerDictionary) {
+        this.entityManager = entityManager;
+        this.manufacturerDictionary = manufacturerDictionary;
+    }
+
+    @Override
+    public Page<DrugView> findViews(Specification<Drug> specification, Pageable pageable) {
+        TypedQuery<Object[]> query = viewQuery(specification, pageable);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(toViews(query.getResultList()), pageable, () -> count(specification));
+    }
+
+    @Override
+    public Slice<DrugView> findViewSlice(Specification<Drug> specification, Pageable pageable) {
+        TypedQuery<Object[]> query = viewQuery(specification, pageable);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(toViews(query.getResultList()), pageable, false);
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<Object[]> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(toViews(hasNext ? rows.subList(0, pageable.getPageSize()) : rows), pageable, hasNext);
+    }
+
+    @Override
+    public List<DrugView> findViews(Specification<Drug> specification) {
+        return toViews(viewQuery(specification, Pageable.unpaged()).getResultList());
+    }
+
+    private TypedQuery<Object[]> viewQuery(Specification<Drug> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Drug> drug = query.from(Drug.class);
+        query.multiselect(drug.get("uid"), drug.get("name"), drug.get("manufacturerId"), drug.get("quantity"), drug.get("price"),
+                drug.get("version"));
+        Predicate predicate = specification.toPredicate(drug, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            // Resolves nested paths such as manufacturer.name to a join
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), drug, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Drug> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Drug> drug = query.from(Drug.class);
+        query.select(cb.count(drug));
+        Predicate predicate = specification.toPredicate(drug, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Manufacturer names come from the dictionary, so every view of a manufacturer shares one String
+    private List<DrugView> toViews(List<Object[]> rows) {
+        List<DrugView> views = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            views.add(new DrugView(
+                    (UUID) row[0],
+                    (String) row[1],
+                    manufacturerDictionary.nameOf((Integer) row[2]),
+                    (Integer) row[3],
+                    (BigDecimal) row[4],
+                    (Long) row[5]));
+        }
+        return views;
+    }
+}
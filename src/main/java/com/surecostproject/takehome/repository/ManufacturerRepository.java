@@ -0,0 +1,12 @@
+package com.surecostproject.takehome.repository;
+
+import com.surecostproject.takehome.entity.Manufacturer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ManufacturerRepository extends JpaRepository<Manufacturer, Integer>, ManufacturerStockRepository {
+    Optional<Manufacturer> findBySearchName(String searchName);
+}
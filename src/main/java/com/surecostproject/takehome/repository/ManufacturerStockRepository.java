@@ -0,0 +1,20 @@
+package com.surecostproject.takehome.repository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Incremental maintenance of the inventory totals stored on the manufacturer rows.
+ */
+public interface ManufacturerStockRepository {
+
+    record StockDelta(long drugs, long units, BigDecimal value) {
+    }
+
+    /**
+     * Adds each delta to its manufacturer's totals with batched
+     * UPDATE ... SET total = total + ? statements, in ascending manufacturer id order so concurrent
+     * writers lock the rows in the same order.
+     */
+    void applyStockDeltas(Map<Integer, StockDelta> deltas);
+}
@@ -0,0 +1,35 @@
+package com.surecostproject.takehome.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+class ManufacturerStockRepositoryImpl implements ManufacturerStockRepository {
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE manufacturer SET drug_count = drug_count + ?, total_units = total_units + ?, stock_value = stock_value + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    ManufacturerStockRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void applyStockDeltas(Map<Integer, StockDelta> deltas) {
+        List<Map.Entry<Integer, StockDelta>> ordered = new ArrayList<>(new TreeMap<>(deltas).entrySet());
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, ordered, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getValue().drugs());
+            ps.setLong(2, entry.getValue().units());
+            ps.setBigDecimal(3, entry.getValue().value());
+            ps.setInt(4, entry.getKey());
+        });
+    }
+}
@@ -0,0 +1,217 @@
+package com.surecostproject.takehome.search;
+
+import com.surecostproject.takehome.datasource.ReadRouting;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.event.DrugChangeEvent;
+import com.surecostproject.takehome.repository.DrugBatchRepository.DrugRow;
+import com.surecostproject.takehome.repository.DrugRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process trigram index over drug names that answers substring searches
+ * without a LIKE '%x%' table scan. It is built from the database at startup and then maintained
+ * from committed {@link DrugChangeEvent}s. Results are ordered by name, then uid.
+ *
+ * <p>Changed rows are read back from the primary rather than copied from the event, since set-based
+ * bulk updates never load the rows they write. After-commit listeners of concurrent writes can finish
+ * in any order, so each entry keeps the version it was read at and an older read never replaces it.
+ */
+@Slf4j
+@Component
+public class DrugSearchIndex {
+    private static final int REBUILD_PAGE_SIZE = 5000;
+    private static final Comparator<Match> MATCH_ORDER =
+            Comparator.comparing(Match::name).thenComparing(Match::uid);
+
+    private final TrigramIndex names = new TrigramIndex();
+    private final Set<UUID> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final DrugRepository drugRepository;
+    private final ReadRouting readRouting;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate readTransaction;
+    private final boolean enabled;
+
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    public DrugSearchIndex(DrugRepository drugRepository,
+                           ReadRouting readRouting,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                           @Value("${drug.search.index.enabled:true}") boolean enabled) {
+        this.drugRepository = drugRepository;
+        this.readRouting = readRouting;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        // Listeners run after the writer's commit, so rows are read back in a transaction of their own
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * True once the index reflects the database. Callers fall back to the database until then.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Page<UUID> searchByName(String name, Pageable pageable) {
+        return page(names.search(name), pageable);
+    }
+
+    /**
+     * Drops an id that is no longer in the database, e.g. after a write that bypassed the service.
+     */
+    public void remove(UUID id) {
+        names.remove(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            taskExecutor.execute(this::rebuild);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onDrugChange(DrugChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Set<UUID> ids = new HashSet<>(event.deleted());
+        for (Drug drug : event.upserted()) {
+            ids.add(drug.getUid());
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        refresh(ids);
+        if (rebuilding) {
+            changedDuringRebuild.addAll(ids);
+        }
+    }
+
+    private void refresh(Set<UUID> ids) {
+        List<DrugRow> found = readRouting.readFromPrimary(
+                () -> readTransaction.execute(status -> drugRepository.findRows(ids)));
+        Set<UUID> missing = new HashSet<>(ids);
+        for (DrugRow row : found) {
+            missing.remove(row.uid());
+            names.put(row.uid(), row.name(), row.version());
+        }
+        missing.forEach(this::remove);
+    }
+
+    /**
+     * Reloads the index from the database. Searches are served by the database while this runs.
+     * Rows changed while the table is being paged are reloaded afterwards, so a page read before
+     * a concurrent commit cannot leave a stale entry behind. Rows are read from the primary, since a
+     * lagging replica would miss commits whose events arrived before the rebuild started.
+     */
+    public void rebuild() {
+        readRouting.runOnPrimary(this::reload);
+    }
+
+    private void reload() {
+        rebuildLock.lock();
+        try {
+            ready = false;
+            rebuilding = true;
+            names.clear();
+
+            long start = System.nanoTime();
+            Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("uid"));
+            Page<Drug> page;
+            do {
+                page = drugRepository.findAll(pageable);
+                page.forEach(this::put);
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+
+            while (!changedDuringRebuild.isEmpty()) {
+                Set<UUID> changed = new HashSet<>(changedDuringRebuild);
+                changedDuringRebuild.removeAll(changed);
+                changed.forEach(this::remove);
+                drugRepository.findAllById(changed).forEach(this::put);
+            }
+
+            rebuilding = false;
+            ready = true;
+            log.info("Drug search index built with {} drugs in {} ms",
+                    page.getTotalElements(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            rebuilding = false;
+            log.error("Drug search index rebuild failed, searches stay on the database", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void put(Drug drug) {
+        names.put(drug.getUid(), drug.getName(), drug.getVersion());
+    }
+
+    /**
+     * Selects the requested page with a bounded heap of offset + size entries instead of sorting
+     * every match, which keeps the first pages cheap for broad terms.
+     */
+    private Page<UUID> page(List<UUID> ids, Pageable pageable) {
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        PriorityQueue<Match> top = new PriorityQueue<>(MATCH_ORDER.reversed());
+        int total = 0;
+        for (UUID id : ids) {
+            String name = names.get(id);
+            if (name == null) {
+                continue;
+            }
+            total++;
+            Match match = new Match(name, id);
+            if (top.size() < limit) {
+                top.add(match);
+            } else if (MATCH_ORDER.compare(match, top.peek()) < 0) {
+                top.poll();
+                top.add(match);
+            }
+        }
+
+        List<Match> selected = new ArrayList<>(top);
+        selected.sort(MATCH_ORDER);
+        int from = (int) Math.min(pageable.getOffset(), selected.size());
+        List<UUID> content = new ArrayList<>(selected.size() - from);
+        for (Match match : selected.subList(from, selected.size())) {
+            content.add(match.uid());
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private record Match(String name, UUID uid) {
+    }
+}
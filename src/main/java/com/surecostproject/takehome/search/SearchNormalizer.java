@@ -0,0 +1,46 @@
+package com.surecostproject.takehome.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Canonical form of text for searching: case-folded, accents stripped and runs of whitespace
+ * collapsed to one space. Stored next to the original columns and applied to search terms, so
+ * "  Café   Nöel" and "cafe noel" compare equal without per-row functions in the database.
+ */
+public final class SearchNormalizer {
+
+    private SearchNormalizer() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = isAscii(value) ? value : Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0x7f) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
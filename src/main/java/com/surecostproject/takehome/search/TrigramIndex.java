@@ -0,0 +1,143 @@
+package com.surecostproject.takehome.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case- and accent-insensitive substring index over one text field. Every run of three characters is mapped
+ * to the ids whose value contains it; a query only verifies the ids of its rarest trigram instead
+ * of scanning all values. Queries shorter than three characters fall back to a scan of the values.
+ * Each value carries the version it was read at, and an older version never replaces a newer one.
+ */
+class TrigramIndex {
+    private final Map<UUID, String> values = new HashMap<>();
+    private final Map<UUID, Long> versions = new HashMap<>();
+    private final Map<Long, Set<UUID>> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    static String normalize(String value) {
+        return value == null ? "" : SearchNormalizer.normalize(value);
+    }
+
+    void put(UUID id, String value, long version) {
+        String normalized = normalize(value);
+        lock.writeLock().lock();
+        try {
+            Long held = versions.get(id);
+            if (held != null && version < held) {
+                return;
+            }
+            versions.put(id, version);
+            String previous = values.put(id, normalized);
+            if (normalized.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+            for (long trigram : trigrams(normalized)) {
+                postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            versions.remove(id);
+            String previous = values.remove(id);
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            values.clear();
+            versions.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    String get(UUID id) {
+        lock.readLock().lock();
+        try {
+            return values.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<UUID> search(String query) {
+        String term = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (term.length() < 3) {
+                return scan(term);
+            }
+            Set<UUID> candidates = null;
+            for (long trigram : trigrams(term)) {
+                Set<UUID> ids = postings.get(trigram);
+                if (ids == null) {
+                    return List.of();
+                }
+                if (candidates == null || ids.size() < candidates.size()) {
+                    candidates = ids;
+                }
+            }
+            List<UUID> matches = new ArrayList<>();
+            for (UUID id : candidates) {
+                if (values.get(id).contains(term)) {
+                    matches.add(id);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<UUID> scan(String term) {
+        List<UUID> matches = new ArrayList<>();
+        for (Map.Entry<UUID, String> entry : values.entrySet()) {
+            if (entry.getValue().contains(term)) {
+                matches.add(entry.getKey());
+            }
+        }
+        return matches;
+    }
+
+    private void removePostings(UUID id, String value) {
+        for (long trigram : trigrams(value)) {
+            Set<UUID> ids = postings.get(trigram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    private static Set<Long> trigrams(String value) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            trigrams.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+        }
+        return trigrams;
+    }
+}
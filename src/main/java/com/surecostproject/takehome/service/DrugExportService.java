@@ -0,0 +1,138 @@
+package com.surecostproject.takehome.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.repository.DrugRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the full catalog straight from a forward-only database cursor to the response stream,
+ * one row at a time, so memory use does not depend on the size of the catalog.
+ */
+@Service
+public class DrugExportService {
+    private static final String CSV_HEADER = "uid,name,manufacturerName,quantity,price";
+
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv"),
+        // Concatenated binary objects: a Smile stream with one header, and a CBOR sequence (RFC 8742)
+        SMILE("application/x-jackson-smile"),
+        CBOR("application/cbor-seq");
+
+        private final String mediaType;
+
+        ExportFormat(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+    }
+
+    private final DrugRepository drugRepository;
+    private final ObjectMapper objectMapper;
+    private final SmileFactory smileFactory = new SmileFactory();
+    private final CBORFactory cborFactory = new CBORFactory();
+    private final int fetchSize;
+
+    public DrugExportService(DrugRepository drugRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${drug.export.fetch-size:1000}") int fetchSize) {
+        this.drugRepository = drugRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportDrugs(ExportFormat format, OutputStream out) throws IOException {
+        try {
+            return switch (format) {
+                case NDJSON -> writeRecords(objectMapper.getFactory(), out);
+                case CSV -> writeCsv(out);
+                case SMILE -> writeRecords(smileFactory, out);
+                case CBOR -> writeRecords(cborFactory, out);
+            };
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // One root-level object per drug; JSON objects are newline-delimited, binary ones need no separator
+    private long writeRecords(JsonFactory factory, OutputStream out) throws IOException {
+        boolean textual = !factory.canHandleBinaryNatively();
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (textual) {
+                generator.setRootValueSeparator(null);
+            }
+            long rows = drugRepository.forEachDrug(fetchSize, drug -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeStringField("uid", drug.getUid().toString());
+                    generator.writeStringField("name", drug.getName());
+                    generator.writeStringField("manufacturerName", drug.getManufacturerName());
+                    generator.writeNumberField("quantity", drug.getQuantity());
+                    generator.writeNumberField("price", drug.getPrice());
+                    generator.writeEndObject();
+                    if (textual) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+            return rows;
+        }
+    }
+
+    private long writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long rows = drugRepository.forEachDrug(fetchSize, drug -> {
+            try {
+                writer.write(drug.getUid().toString());
+                writer.write(',');
+                writeCsvField(writer, drug.getName());
+                writer.write(',');
+                writeCsvField(writer, drug.getManufacturerName());
+                writer.write(',');
+                writer.write(Integer.toString(drug.getQuantity()));
+                writer.write(',');
+                writer.write(drug.getPrice().toPlainString());
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
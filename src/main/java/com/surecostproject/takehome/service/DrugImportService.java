@@ -0,0 +1,179 @@
+package com.surecostproject.takehome.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.surecostproject.takehome.dto.BulkImportSummaryDTO;
+import com.surecostproject.takehome.dto.DrugDTO;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.event.DrugChangeEvent;
+import com.surecostproject.takehome.mapper.DrugMapper;
+import com.surecostproject.takehome.metrics.DrugMetrics;
+import com.surecostproject.takehome.metrics.DrugMetrics.BulkOperation;
+import com.surecostproject.takehome.repository.DrugRepository;
+import com.surecostproject.takehome.validation.DrugErrorCode;
+import com.surecostproject.takehome.validation.DrugValidator;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports drugs from an NDJSON stream or a JSON array without holding the whole payload in memory.
+ * Rows are parsed one at a time, validated, and persisted in fixed-size chunks, each in its own
+ * transaction; the persistence context is cleared after every chunk so heap usage stays flat.
+ * Invalid rows are skipped and reported, valid rows are always imported.
+ */
+@Slf4j
+@Service
+public class DrugImportService {
+    private final DrugService drugService;
+    private final DrugValidator drugValidator;
+    private final DrugRepository drugRepository;
+    private final DrugMapper drugMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DrugMetrics drugMetrics;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public DrugImportService(DrugService drugService,
+                             DrugValidator drugValidator,
+                             DrugRepository drugRepository,
+                             DrugMapper drugMapper,
+                             ObjectMapper objectMapper,
+                             TransactionTemplate transactionTemplate,
+                             EntityManager entityManager,
+                             ApplicationEventPublisher eventPublisher,
+                             DrugMetrics drugMetrics,
+                             @Value("${drug.import.chunk-size:1000}") int chunkSize,
+                             @Value("${drug.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.drugService = drugService;
+        this.drugValidator = drugValidator;
+        this.drugRepository = drugRepository;
+        this.drugMapper = drugMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.drugMetrics = drugMetrics;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public BulkImportSummaryDTO importDrugs(InputStream body) throws IOException {
+        ImportProgress progress = new ImportProgress(System.nanoTime());
+        List<Drug> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<DrugDTO> rows = objectMapper.readerFor(DrugDTO.class).readValues(body)) {
+            while (nextRow(rows, chunk, progress)) {
+                if (chunk.size() == chunkSize) {
+                    persistChunk(chunk, progress);
+                }
+            }
+        }
+        persistChunk(chunk, progress);
+
+        return progress.toSummary();
+    }
+
+    /**
+     * Reads one row into the chunk, or records why it was rejected.
+     * Returns false once the stream is exhausted or can no longer be parsed.
+     */
+    private boolean nextRow(MappingIterator<DrugDTO> rows, List<Drug> chunk, ImportProgress progress) {
+        int index = progress.received;
+        try {
+            if (!rows.hasNextValue()) {
+                return false;
+            }
+            progress.received++;
+            Drug drug = drugMapper.toEntity(rows.nextValue());
+            DrugErrorCode error = drugValidator.check(drug);
+            if (error == null) {
+                chunk.add(drug);
+            } else {
+                progress.reject(index, error.message());
+            }
+        } catch (JsonParseException e) {
+            progress.reject(index, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            return false;
+        } catch (JsonMappingException e) {
+            progress.reject(index, "Invalid value: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            progress.reject(index, "Unreadable request body, import stopped: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private void persistChunk(List<Drug> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        drugMetrics.recordBulkBatch(BulkOperation.IMPORT_CHUNK, chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                drugService.beforeInsert(chunk);
+                List<Drug> saved = drugRepository.saveAll(chunk);
+                eventPublisher.publishEvent(DrugChangeEvent.upserted(saved));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            progress.imported += chunk.size();
+            progress.chunks++;
+        } catch (DataAccessException e) {
+            log.warn("Import chunk of {} drugs failed: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+            progress.failed += chunk.size();
+            progress.addError(String.format("Chunk ending at index %d: %s",
+                    progress.received - 1, e.getMostSpecificCause().getMessage()));
+        }
+        chunk.clear();
+    }
+
+    private final class ImportProgress {
+        private final long startNanos;
+        private final List<String> errors = new ArrayList<>();
+        private int received;
+        private long imported;
+        private long failed;
+        private int chunks;
+
+        private ImportProgress(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        private void reject(int index, String message) {
+            failed++;
+            addError("Drug at index " + index + ": " + message);
+        }
+
+        private void addError(String error) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+
+        private BulkImportSummaryDTO toSummary() {
+            return BulkImportSummaryDTO.builder()
+                    .received(received)
+                    .imported(imported)
+                    .failed(failed)
+                    .chunks(chunks)
+                    .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
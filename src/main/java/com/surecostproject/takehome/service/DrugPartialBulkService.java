@@ -0,0 +1,248 @@
+package com.surecostproject.takehome.service;
+
+import com.surecostproject.takehome.dto.BulkPartialResultDTO;
+import com.surecostproject.takehome.dto.BulkRowResultDTO;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.event.DrugChangeEvent;
+import com.surecostproject.takehome.metrics.DrugMetrics;
+import com.surecostproject.takehome.metrics.DrugMetrics.BulkOperation;
+import com.surecostproject.takehome.repository.DrugRepository;
+import com.surecostproject.takehome.validation.DrugErrorCode;
+import com.surecostproject.takehome.validation.DrugValidator;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk create and update that keep every row that can be written. Rows are validated one by one,
+ * then written in chunks that each commit in their own transaction. When the database rejects a
+ * chunk it is rolled back and its rows are retried one at a time, so a single bad row only fails
+ * itself. The result lists succeeded and failed indices, letting a client resend only the failures.
+ */
+@Slf4j
+@Service
+public class DrugPartialBulkService {
+    private final DrugService drugService;
+    private final DrugValidator drugValidator;
+    private final DrugRepository drugRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DrugMetrics drugMetrics;
+    private final int chunkSize;
+
+    public DrugPartialBulkService(DrugService drugService,
+                                  DrugValidator drugValidator,
+                                  DrugRepository drugRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  EntityManager entityManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  DrugMetrics drugMetrics,
+                                  @Value("${drug.bulk.partial.chunk-size:1000}") int chunkSize) {
+        this.drugService = drugService;
+        this.drugValidator = drugValidator;
+        this.drugRepository = drugRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.drugMetrics = drugMetrics;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkPartialResultDTO createBulkDrugs(List<Drug> drugs) {
+        drugMetrics.recordBulkBatch(BulkOperation.CREATE, drugs.size());
+        BulkReport report = new BulkReport(drugs.size());
+        List<Row> valid = validate(drugs, false, report);
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Row> chunk = valid.subList(from, Math.min(valid.size(), from + chunkSize));
+            writeChunk(chunk, report, this::insert);
+        }
+        return report.toResult();
+    }
+
+    public BulkPartialResultDTO updateBulkDrugs(List<Drug> drugs) {
+        drugMetrics.recordBulkBatch(BulkOperation.UPDATE, drugs.size());
+        BulkReport report = new BulkReport(drugs.size());
+        List<Row> valid = validate(drugs, true, report);
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Row> chunk = valid.subList(from, Math.min(valid.size(), from + chunkSize));
+            writeChunk(chunk, report, this::update);
+        }
+        return report.toResult();
+    }
+
+    private List<Row> validate(List<Drug> drugs, boolean requireId, BulkReport report) {
+        List<Row> valid = new ArrayList<>(drugs.size());
+        for (int i = 0; i < drugs.size(); i++) {
+            Drug drug = drugs.get(i);
+            DrugErrorCode error = drugValidator.check(drug);
+            if (error == null && requireId && drug.getUid() == null) {
+                error = DrugErrorCode.ID_REQUIRED;
+            }
+            if (error == null) {
+                valid.add(new Row(i, drug));
+            } else {
+                report.fail(i, drug != null ? drug.getUid() : null, error.message());
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Writes the chunk in one transaction, falling back to one transaction per row if the database
+     * rejects it. The writer returns the rows it could not apply, which are failed without a rollback.
+     */
+    private void writeChunk(List<Row> chunk, BulkReport report, ChunkWriter writer) {
+        report.chunks++;
+        try {
+            List<Rejected> rejected = transactionTemplate.execute(status -> writer.write(chunk));
+            report.record(chunk, rejected);
+        } catch (DataAccessException e) {
+            log.warn("Bulk chunk of {} drugs failed, retrying row by row: {}",
+                    chunk.size(), e.getMostSpecificCause().getMessage());
+            for (Row row : chunk) {
+                row.reset();
+                report.chunks++;
+                try {
+                    List<Rejected> rejected = transactionTemplate.execute(status -> writer.write(List.of(row)));
+                    report.record(List.of(row), rejected);
+                } catch (DataAccessException rowError) {
+                    row.reset();
+                    // The database's message quotes the statement, so the client gets the code's message
+                    log.warn("Bulk row {} failed: {}", row.index, rowError.getMostSpecificCause().getMessage());
+                    report.fail(row.index, row.drug.getUid(), DrugErrorCode.WRITE_REJECTED.message());
+                }
+            }
+        }
+    }
+
+    private List<Rejected> insert(List<Row> rows) {
+        List<Drug> drugs = rows.stream().map(Row::drug).toList();
+        drugService.beforeInsert(drugs);
+        List<Drug> saved = drugRepository.saveAll(drugs);
+        eventPublisher.publishEvent(DrugChangeEvent.upserted(saved));
+        // Flushed through the repository so constraint failures surface as DataAccessException
+        drugRepository.flush();
+        entityManager.clear();
+        return List.of();
+    }
+
+    private List<Rejected> update(List<Row> rows) {
+        Set<UUID> existingIds = drugRepository.findExistingIds(rows.stream().map(row -> row.drug.getUid()).toList());
+        List<Rejected> rejected = new ArrayList<>();
+        List<Row> present = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existingIds.contains(row.drug.getUid())) {
+                present.add(row);
+            } else {
+                rejected.add(new Rejected(row, "Drug not found with id: " + row.drug.getUid()));
+            }
+        }
+
+        // Rows deleted since the existence check update nothing; they fail without undoing the rest
+        List<Drug> presentDrugs = present.stream().map(Row::drug).toList();
+        drugService.beforeUpdate(presentDrugs);
+        Set<Integer> missing = new HashSet<>(drugRepository.batchUpdate(presentDrugs));
+        List<Drug> updated = new ArrayList<>(present.size());
+        for (int i = 0; i < present.size(); i++) {
+            Row row = present.get(i);
+            if (missing.contains(i)) {
+                rejected.add(new Rejected(row, "Drug not found with id: " + row.drug.getUid()));
+            } else {
+                updated.add(row.drug);
+            }
+        }
+        eventPublisher.publishEvent(DrugChangeEvent.upserted(updated));
+        return rejected;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        List<Rejected> write(List<Row> rows);
+    }
+
+    // A row remembers its incoming id and manufacturer: a rolled-back write leaves the generated id
+    // and the resolved manufacturer id on the entity, and that manufacturer may have rolled back with it
+    private static final class Row {
+        private final int index;
+        private final Drug drug;
+        private final UUID requestedUid;
+        private final Integer requestedManufacturerId;
+        private final String requestedManufacturerName;
+
+        private Row(int index, Drug drug) {
+            this.index = index;
+            this.drug = drug;
+            this.requestedUid = drug.getUid();
+            this.requestedManufacturerId = drug.getManufacturerId();
+            this.requestedManufacturerName = drug.getManufacturerName();
+        }
+
+        private Drug drug() {
+            return drug;
+        }
+
+        private void reset() {
+            drug.setUid(requestedUid);
+            drug.assignManufacturer(requestedManufacturerId, requestedManufacturerName);
+        }
+    }
+
+    private record Rejected(Row row, String message) {
+    }
+
+    private static final class BulkReport {
+        private final long startNanos = System.nanoTime();
+        private final int total;
+        private final List<BulkRowResultDTO> succeeded = new ArrayList<>();
+        private final List<BulkRowResultDTO> failed = new ArrayList<>();
+        private int chunks;
+
+        private BulkReport(int total) {
+            this.total = total;
+        }
+
+        private void fail(int index, UUID uid, String message) {
+            failed.add(new BulkRowResultDTO(index, uid, message));
+        }
+
+        private void record(List<Row> rows, List<Rejected> rejected) {
+            Set<Row> rejectedRows = new HashSet<>();
+            for (Rejected r : rejected) {
+                rejectedRows.add(r.row);
+                fail(r.row.index, r.row.drug.getUid(), r.message);
+            }
+            for (Row row : rows) {
+                if (!rejectedRows.contains(row)) {
+                    succeeded.add(new BulkRowResultDTO(row.index, row.drug.getUid(), null));
+                }
+            }
+        }
+
+        private BulkPartialResultDTO toResult() {
+            Comparator<BulkRowResultDTO> byIndex = Comparator.comparingInt(BulkRowResultDTO::getIndex);
+            succeeded.sort(byIndex);
+            failed.sort(byIndex);
+            return BulkPartialResultDTO.builder()
+                    .total(total)
+                    .succeededCount(succeeded.size())
+                    .failedCount(failed.size())
+                    .chunks(chunks)
+                    .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+                    .succeeded(succeeded)
+                    .failed(failed)
+                    .build();
+        }
+    }
+}
@@ -1,66 +1,154 @@
 package com.surecostproject.takehome.service;
 
+import com.surecostproject.takehome.cache.DrugCache;
+import com.surecostproject.takehome.catalog.ColumnarCatalog;
+import com.surecostproject.takehome.datasource.ReadRouting;
+import com.surecostproject.takehome.dto.DrugSearchCriteria;
+import com.surecostproject.takehome.dto.DrugView;
+import com.surecostproject.takehome.dto.DrugViolation;
 import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.event.DrugChangeEvent;
 import com.surecostproject.takehome.exception.BulkProcessingException;
 import com.surecostproject.takehome.exception.DrugNotFoundException;
+import com.surecostproject.takehome.exception.DrugValidationException;
+import com.surecostproject.takehome.exception.DrugVersionMismatchException;
 import com.surecostproject.takehome.exception.InvalidDrugRequestException;
+import com.surecostproject.takehome.inventory.ManufacturerInventoryService;
+import com.surecostproject.takehome.manufacturer.ManufacturerDictionary;
+import com.surecostproject.takehome.metrics.DrugMetrics;
+import com.surecostproject.takehome.metrics.DrugMetrics.BulkOperation;
 import com.surecostproject.takehome.repository.DrugRepository;
+import com.surecostproject.takehome.repository.DrugSpecifications;
+import com.surecostproject.takehome.search.DrugSearchIndex;
+import com.surecostproject.takehome.search.SearchNormalizer;
+import com.surecostproject.takehome.validation.DrugErrorCode;
+import com.surecostproject.takehome.validation.DrugValidator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DrugService {
+
+    public enum SearchMatch {
+        CONTAINS, PREFIX
+    }
+
+    private static final String MANUFACTURER_NAME_PATH = "manufacturer.name";
+
     private final DrugRepository drugRepository;
+    private final DrugSearchIndex drugSearchIndex;
+    private final DrugCache drugCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DrugMetrics drugMetrics;
+    private final ManufacturerDictionary manufacturerDictionary;
+    private final ManufacturerInventoryService manufacturerInventoryService;
+    private final DrugValidator drugValidator;
+    private final ReadRouting readRouting;
+    private final ColumnarCatalog columnarCatalog;
 
     @Transactional(readOnly = true)
     public List<Drug> getAllDrugs() {
         return drugRepository.findAll();
     }
 
-    @Transactional(readOnly = true)
-    public Drug getDrugById(UUID id) {
-        return drugRepository.findById(id)
-            .orElseThrow(() -> new DrugNotFoundException(id));
+    // Served from the columnar catalog when loaded, else from DrugCache; a miss runs a projection
+    // query in its own read-only transaction
+    public DrugView getDrugById(UUID id) {
+        if (columnarCatalog.isReady()) {
+            return columnarCatalog.findById(id).orElseThrow(() -> new DrugNotFoundException(id));
+        }
+        return drugCache.get(id, this::findView);
     }
 
     @Transactional
     public Drug createDrug(Drug drug) {
         validateDrug(drug);
-        return drugRepository.save(drug);
+        beforeInsert(List.of(drug));
+        Drug savedDrug = drugRepository.save(drug);
+        eventPublisher.publishEvent(DrugChangeEvent.upserted(List.of(savedDrug)));
+        return savedDrug;
     }
 
     @Transactional
     public List<Drug> createBulkDrugs(List<Drug> drugs) {
+        drugMetrics.recordBulkBatch(BulkOperation.CREATE, drugs.size());
         validateBulkDrugs(drugs);
-        return drugRepository.saveAll(drugs);
+        beforeInsert(drugs);
+        List<Drug> savedDrugs = drugRepository.saveAll(drugs);
+        eventPublisher.publishEvent(DrugChangeEvent.upserted(savedDrugs));
+        return savedDrugs;
     }
 
     @Transactional
     public Drug updateDrug(UUID id, Drug drug) {
+        return updateDrug(id, drug, null);
+    }
+
+    /**
+     * Replaces the drug's fields. With an {@code expectedVersion} (from an If-Match header) the update
+     * only applies if the drug is still at that version, so a client cannot overwrite a change it has
+     * not seen. The row is locked while it is read, so unconditional updates to one drug queue behind
+     * each other and the last one wins, as before versioning.
+     */
+    @Transactional
+    public Drug updateDrug(UUID id, Drug drug, Long expectedVersion) {
         validateDrug(drug);
-        Drug existingDrug = getDrugById(id);
+        Drug existingDrug = drugRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new DrugNotFoundException(id));
+        if (expectedVersion != null && existingDrug.getVersion() != expectedVersion) {
+            throw new DrugVersionMismatchException(id, expectedVersion, existingDrug.getVersion());
+        }
         
         existingDrug.setName(drug.getName());
         existingDrug.setManufacturerName(drug.getManufacturerName());
         existingDrug.setQuantity(drug.getQuantity());
         existingDrug.setPrice(drug.getPrice());
+        beforeUpdate(List.of(existingDrug));
         
-        return drugRepository.save(existingDrug);
+        Drug savedDrug = drugRepository.save(existingDrug);
+        eventPublisher.publishEvent(DrugChangeEvent.upserted(List.of(savedDrug)));
+        return savedDrug;
     }
 
     @Transactional
     public List<Drug> updateBulkDrugs(List<Drug> drugs) {
+        drugMetrics.recordBulkBatch(BulkOperation.UPDATE, drugs.size());
         validateBulkDrugsForUpdate(drugs);
-        return drugRepository.saveAll(drugs);
+        beforeUpdate(drugs);
+        List<Integer> missing = drugRepository.batchUpdate(drugs);
+        if (!missing.isEmpty()) {
+            // Rows deleted concurrently after validation; rolls back the whole update
+            List<DrugViolation> violations = new ArrayList<>(missing.size());
+            for (int index : missing) {
+                violations.add(new DrugViolation(index, drugs.get(index).getUid(), DrugErrorCode.DRUG_NOT_FOUND));
+            }
+            throw BulkProcessingException.of("Bulk update failed", violations);
+        }
+        eventPublisher.publishEvent(DrugChangeEvent.upserted(drugs));
+        return drugs;
     }
 
     @Transactional
@@ -68,89 +156,258 @@ public class DrugService {
         if (!drugRepository.existsById(id)) {
             throw new DrugNotFoundException(id);
         }
+        manufacturerInventoryService.recordDeletes(List.of(id));
         drugRepository.deleteById(id);
+        eventPublisher.publishEvent(DrugChangeEvent.deleted(List.of(id)));
     }
 
     @Transactional
     public void deleteBulkDrugs(List<UUID> ids) {
+        drugMetrics.recordBulkBatch(BulkOperation.DELETE, ids.size());
         validateBulkDrugsForDeletion(ids);
-        drugRepository.deleteAllById(ids);
+        manufacturerInventoryService.recordDeletes(ids);
+        drugRepository.deleteAllByIdInChunks(ids);
+        eventPublisher.publishEvent(DrugChangeEvent.deleted(ids));
+    }
+
+    // Search methods with pagination. They open no transaction of their own: the columnar catalog needs
+    // none, and each database path is a single repository call that runs in a read-only transaction.
+    public Slice<DrugView> searchByName(String name, Pageable pageable) {
+        return searchByName(name, SearchMatch.CONTAINS, pageable, true);
+    }
+
+    /**
+     * With {@code countTotal} false the count query is skipped and a plain {@link Slice} is returned;
+     * results answered by the in-memory index always carry their total, which costs nothing there.
+     */
+    public Slice<DrugView> searchByName(String name, SearchMatch match, Pageable pageable, boolean countTotal) {
+        String term = SearchNormalizer.normalize(name);
+        if (match == SearchMatch.PREFIX) {
+            Pageable ordered = inIndexOrder(pageable, "nameSearch");
+            if (columnarCatalog.canServe(ordered)) {
+                return columnarCatalog.findByNameStartingWith(term, ordered, countTotal);
+            }
+            return findViews(DrugSpecifications.nameStartsWith(term), ordered, countTotal);
+        }
+        if (columnarCatalog.canServe(pageable)) {
+            return columnarCatalog.findByNameContaining(term, pageable, countTotal);
+        }
+        if (canUseSearchIndex(pageable)) {
+            return loadInOrder(drugSearchIndex.searchByName(name, pageable), term);
+        }
+        return findViews(DrugSpecifications.nameContains(term), pageable, countTotal);
+    }
+
+    public Slice<DrugView> searchByManufacturer(String manufacturerName, Pageable pageable) {
+        return searchByManufacturer(manufacturerName, SearchMatch.CONTAINS, pageable, true);
+    }
+
+    /**
+     * Matches the term against the distinct manufacturers in memory, then selects their drugs by
+     * manufacturer id. Without an explicit sort, results are ordered by name.
+     */
+    public Slice<DrugView> searchByManufacturer(String manufacturerName, SearchMatch match, Pageable pageable, boolean countTotal) {
+        List<Integer> manufacturerIds = matchingManufacturers(manufacturerName, match);
+        if (manufacturerIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Pageable ordered = orderedByName(pageable);
+        if (columnarCatalog.canServe(ordered)) {
+            return columnarCatalog.findByManufacturerIn(manufacturerIds, ordered, countTotal);
+        }
+        return findViews(DrugSpecifications.manufacturerIn(manufacturerIds), ordered, countTotal);
+    }
+
+    public Slice<DrugView> searchByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable, boolean countTotal) {
+        if (columnarCatalog.canServe(pageable)) {
+            return columnarCatalog.findByPriceBetween(minPrice, maxPrice, pageable, countTotal);
+        }
+        return findViews(DrugSpecifications.priceBetween(minPrice, maxPrice), pageable, countTotal);
+    }
+
+    /**
+     * Composite search. A name-only search without an explicit sort is answered by the in-memory
+     * index; every other combination becomes one query whose predicates the database can serve from
+     * the drug table indexes. Without an explicit sort, results are ordered by name. A loaded
+     * columnar catalog answers every combination instead.
+     */
+    public Slice<DrugView> searchDrugs(DrugSearchCriteria criteria, Pageable pageable, boolean countTotal) {
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new InvalidDrugRequestException("Minimum price cannot exceed maximum price");
+        }
+        if (criteria.hasOnlyName() && canUseSearchIndex(pageable)) {
+            String name = criteria.getName().trim();
+            return loadInOrder(drugSearchIndex.searchByName(name, pageable), SearchNormalizer.normalize(name));
+        }
+        Integer manufacturerId = null;
+        if (criteria.getManufacturer() != null && !criteria.getManufacturer().isBlank()) {
+            Optional<Integer> id = manufacturerDictionary.findId(criteria.getManufacturer());
+            if (id.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            manufacturerId = id.get();
+        }
+        Pageable ordered = orderedByName(pageable);
+        if (columnarCatalog.canServe(ordered)) {
+            return columnarCatalog.findMatching(criteria, manufacturerId, ordered, countTotal);
+        }
+        return findViews(DrugSpecifications.matching(criteria, manufacturerId), ordered, countTotal);
     }
 
-    // Search methods with pagination
+    public Slice<DrugView> getAllDrugs(Pageable pageable, boolean countTotal) {
+        Pageable sorted = withEntitySort(pageable);
+        if (columnarCatalog.canServe(sorted)) {
+            return columnarCatalog.findAll(sorted, countTotal);
+        }
+        return findViews(Specification.where(null), sorted, countTotal);
+    }
+
+    // Keyset pagination: each slice seeks past the last row instead of skipping an OFFSET
     @Transactional(readOnly = true)
-    public Page<Drug> searchByName(String name, Pageable pageable) {
-        return drugRepository.findByNameContainingIgnoreCase(name, pageable);
+    public Window<Drug> scrollAllDrugs(ScrollPosition position, int size, Sort sort) {
+        return drugRepository.findBy(position, Limit.of(size), sort);
     }
 
     @Transactional(readOnly = true)
-    public Page<Drug> searchByManufacturer(String manufacturerName, Pageable pageable) {
-        return drugRepository.findByManufacturerNameContainingIgnoreCase(manufacturerName, pageable);
+    public Window<Drug> scrollByName(String name, ScrollPosition position, int size, Sort sort) {
+        return drugRepository.findByNameSearchContaining(SearchNormalizer.normalize(name), position, Limit.of(size), sort);
     }
 
     @Transactional(readOnly = true)
-    public Page<Drug> searchByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        return drugRepository.findByPriceBetween(minPrice, maxPrice, pageable);
+    public Window<Drug> scrollByManufacturer(String manufacturerName, ScrollPosition position, int size, Sort sort) {
+        List<Integer> manufacturerIds = matchingManufacturers(manufacturerName, SearchMatch.CONTAINS);
+        if (manufacturerIds.isEmpty()) {
+            return Window.from(List.of(), index -> position);
+        }
+        return drugRepository.findByManufacturerIdIn(manufacturerIds, position, Limit.of(size), sort);
     }
 
     @Transactional(readOnly = true)
-    public Page<Drug> getAllDrugs(Pageable pageable) {
-        return drugRepository.findAll(pageable);
+    public Window<Drug> scrollByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, ScrollPosition position, int size, Sort sort) {
+        return drugRepository.findByPriceBetween(minPrice, maxPrice, position, Limit.of(size), sort);
     }
 
-    private void validateDrug(Drug drug) {
-        if (drug.getName() == null || drug.getName().trim().isEmpty()) {
-            throw new InvalidDrugRequestException("Drug name cannot be empty");
+    private List<Integer> matchingManufacturers(String manufacturerName, SearchMatch match) {
+        return match == SearchMatch.PREFIX
+                ? manufacturerDictionary.idsStartingWith(manufacturerName)
+                : manufacturerDictionary.idsContaining(manufacturerName);
+    }
+
+    private static Pageable orderedByName(Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            return withEntitySort(pageable);
         }
-        if (drug.getManufacturerName() == null || drug.getManufacturerName().trim().isEmpty()) {
-            throw new InvalidDrugRequestException("Manufacturer name cannot be empty");
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("name", "uid"));
+    }
+
+    // manufacturerName is not a column; sorting by it goes through the manufacturer join
+    private static Pageable withEntitySort(Pageable pageable) {
+        if (pageable.getSort().getOrderFor("manufacturerName") == null) {
+            return pageable;
         }
-        if (drug.getQuantity() < 0) {
-            throw new InvalidDrugRequestException("Quantity cannot be negative");
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .map(order -> order.getProperty().equals("manufacturerName") ? order.withProperty(MANUFACTURER_NAME_PATH) : order)
+                .toList());
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    // The index orders by name; explicit sorts and a rebuilding index go to the database.
+    // A loaded columnar catalog answers these itself, without the follow-up row lookup.
+    private boolean canUseSearchIndex(Pageable pageable) {
+        return !columnarCatalog.isReady() && drugSearchIndex.isReady() && pageable.getSort().isUnsorted();
+    }
+
+    // A prefix scan reads the search column index in order, so sorting by it avoids a sort step
+    private static Pageable inIndexOrder(Pageable pageable, String searchProperty) {
+        if (pageable.getSort().isSorted()) {
+            return pageable;
         }
-        if (drug.getPrice() == null || drug.getPrice().compareTo(BigDecimal.ZERO) < 0) {
-            throw new InvalidDrugRequestException("Price cannot be negative");
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(searchProperty, "uid"));
+    }
+
+    private Slice<DrugView> findViews(Specification<Drug> specification, Pageable pageable, boolean countTotal) {
+        return countTotal
+                ? drugRepository.findViews(specification, pageable)
+                : drugRepository.findViewSlice(specification, pageable);
+    }
+
+    private DrugView findView(UUID id) {
+        List<DrugView> views = drugRepository.findViews(DrugSpecifications.idIn(List.of(id)));
+        if (views.isEmpty()) {
+            throw new DrugNotFoundException(id);
         }
+        return views.get(0);
     }
 
-    private void validateBulkDrugs(List<Drug> drugs) {
-        List<String> errors = new ArrayList<>();
-        for (int i = 0; i < drugs.size(); i++) {
-            try {
-                validateDrug(drugs.get(i));
-            } catch (InvalidDrugRequestException e) {
-                errors.add(String.format("Drug at index %d: %s", i, e.getMessage()));
+    // Rows are checked against the term again, in case the index still holds a name the row has since lost
+    private Page<DrugView> loadInOrder(Page<UUID> ids, String term) {
+        Map<UUID, DrugView> drugsById = drugRepository.findViews(DrugSpecifications.idIn(ids.getContent())).stream()
+                .collect(Collectors.toMap(DrugView::uid, Function.identity()));
+        List<DrugView> drugs = new ArrayList<>(ids.getNumberOfElements());
+        for (UUID id : ids) {
+            DrugView drug = drugsById.get(id);
+            if (drug != null) {
+                if (SearchNormalizer.normalize(drug.name()).contains(term)) {
+                    drugs.add(drug);
+                }
+            } else if (!readRouting.readsFromReplica()) {
+                // A replica may simply not have the row yet
+                drugSearchIndex.remove(id);
             }
         }
-        if (!errors.isEmpty()) {
-            throw new BulkProcessingException("Bulk validation failed", errors);
+        return new PageImpl<>(drugs, ids.getPageable(), ids.getTotalElements());
+    }
+
+    private void validateDrug(Drug drug) {
+        List<DrugViolation> violations = drugValidator.validate(drug);
+        if (!violations.isEmpty()) {
+            throw new DrugValidationException(violations);
+        }
+    }
+
+    /**
+     * Resolves manufacturer ids and records the change in the manufacturer inventory totals.
+     * Must run in the transaction that saves the drugs, before they are saved: saving a drug that
+     * carries a uid merges it, which loses the transient manufacturer name.
+     */
+    void beforeInsert(List<Drug> drugs) {
+        manufacturerDictionary.assignIds(drugs);
+        manufacturerInventoryService.recordInserts(drugs);
+    }
+
+    // As beforeInsert, for drugs overwritten by uid
+    void beforeUpdate(List<Drug> drugs) {
+        manufacturerDictionary.assignIds(drugs);
+        manufacturerInventoryService.recordUpdates(drugs);
+    }
+
+    void validateBulkDrugs(List<Drug> drugs) {
+        List<DrugViolation> violations = drugValidator.validate(drugs);
+        if (!violations.isEmpty()) {
+            throw BulkProcessingException.of("Bulk validation failed", violations);
         }
     }
 
     private void validateBulkDrugsForUpdate(List<Drug> drugs) {
-        List<String> errors = new ArrayList<>();
-        for (int i = 0; i < drugs.size(); i++) {
-            Drug drug = drugs.get(i);
-            try {
-                validateDrug(drug);
-                if (drug.getUid() == null) {
-                    errors.add(String.format("Drug at index %d: ID is required for bulk update", i));
-                } else if (!drugRepository.existsById(drug.getUid())) {
-                    errors.add(String.format("Drug at index %d: Drug not found with id: %s", i, drug.getUid()));
-                }
-            } catch (InvalidDrugRequestException e) {
-                errors.add(String.format("Drug at index %d: %s", i, e.getMessage()));
+        List<UUID> ids = new ArrayList<>(drugs.size());
+        for (Drug drug : drugs) {
+            if (drug != null && drug.getUid() != null) {
+                ids.add(drug.getUid());
             }
         }
-        if (!errors.isEmpty()) {
-            throw new BulkProcessingException("Bulk update validation failed", errors);
+        Set<UUID> existingIds = drugRepository.findExistingIds(ids);
+        List<DrugViolation> violations = drugValidator.validateForUpdate(drugs, existingIds);
+        if (!violations.isEmpty()) {
+            throw BulkProcessingException.of("Bulk update validation failed", violations);
         }
     }
 
     private void validateBulkDrugsForDeletion(List<UUID> ids) {
+        Set<UUID> existingIds = drugRepository.findExistingIds(ids);
         List<String> errors = new ArrayList<>();
         for (UUID id : ids) {
-            if (!drugRepository.existsById(id)) {
+            if (!existingIds.contains(id)) {
                 errors.add("Drug not found with id: " + id);
             }
         }
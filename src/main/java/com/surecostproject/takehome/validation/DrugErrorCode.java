@@ -0,0 +1,37 @@
+package com.surecostproject.takehome.validation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Rules a drug in a write request can break. Each code names the field it applies to and carries
+ * the message shown to clients, so reporting a violation never has to build a string.
+ */
+@Schema(description = "Machine-readable validation error code")
+public enum DrugErrorCode {
+    DRUG_REQUIRED(null, "Drug is required"),
+    NAME_REQUIRED("name", "Drug name cannot be empty"),
+    MANUFACTURER_REQUIRED("manufacturerName", "Manufacturer name cannot be empty"),
+    QUANTITY_NEGATIVE("quantity", "Quantity cannot be negative"),
+    PRICE_REQUIRED("price", "Price is required"),
+    PRICE_NEGATIVE("price", "Price cannot be negative"),
+    ID_REQUIRED("uid", "ID is required for bulk update"),
+    DRUG_NOT_FOUND("uid", "Drug not found with id"),
+    // The database refused the row, e.g. a value longer than its column; the cause is only logged
+    WRITE_REJECTED(null, "Drug could not be written; check field lengths and values");
+
+    private final String field;
+    private final String message;
+
+    DrugErrorCode(String field, String message) {
+        this.field = field;
+        this.message = message;
+    }
+
+    public String field() {
+        return field;
+    }
+
+    public String message() {
+        return message;
+    }
+}
@@ -0,0 +1,137 @@
+package com.surecostproject.takehome.validation;
+
+import com.surecostproject.takehome.dto.DrugViolation;
+import com.surecostproject.takehome.entity.Drug;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * The single set of rules for drugs in write requests. Rules are plain checks that return
+ * {@link DrugErrorCode}s; nothing is thrown and no message is formatted while a list is checked,
+ * so a request with many bad rows costs about as much as one with none.
+ *
+ * <p>Lists of at least {@code drug.validation.parallel-threshold} drugs are checked in fixed-size
+ * chunks on the common fork-join pool. Violations are returned in index order either way.
+ */
+@Component
+public class DrugValidator {
+
+    static final int CHUNK_SIZE = 4096;
+
+    private final int parallelThreshold;
+
+    public DrugValidator(@Value("${drug.validation.parallel-threshold:10000}") int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns the first rule the drug breaks, or null if it is valid.
+     */
+    public DrugErrorCode check(Drug drug) {
+        if (drug == null) {
+            return DrugErrorCode.DRUG_REQUIRED;
+        }
+        if (isBlank(drug.getName())) {
+            return DrugErrorCode.NAME_REQUIRED;
+        }
+        if (isBlank(drug.getManufacturerName())) {
+            return DrugErrorCode.MANUFACTURER_REQUIRED;
+        }
+        if (drug.getQuantity() < 0) {
+            return DrugErrorCode.QUANTITY_NEGATIVE;
+        }
+        if (drug.getPrice() == null) {
+            return DrugErrorCode.PRICE_REQUIRED;
+        }
+        if (drug.getPrice().signum() < 0) {
+            return DrugErrorCode.PRICE_NEGATIVE;
+        }
+        return null;
+    }
+
+    // Every rule the drug breaks, reported at index 0
+    public List<DrugViolation> validate(Drug drug) {
+        return validateRange(List.of(drug), 0, 1, null);
+    }
+
+    public List<DrugViolation> validate(List<Drug> drugs) {
+        return validate(drugs, null);
+    }
+
+    /**
+     * As {@link #validate(List)}, and also reports drugs without an id, or whose id is not in
+     * {@code existingIds}, when updating.
+     */
+    public List<DrugViolation> validateForUpdate(List<Drug> drugs, Set<UUID> existingIds) {
+        return validate(drugs, existingIds);
+    }
+
+    private List<DrugViolation> validate(List<Drug> drugs, Set<UUID> existingIds) {
+        int size = drugs.size();
+        if (size < parallelThreshold) {
+            return validateRange(drugs, 0, size, existingIds);
+        }
+        int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> validateRange(drugs, chunk * CHUNK_SIZE,
+                        Math.min(size, (chunk + 1) * CHUNK_SIZE), existingIds))
+                .flatMap(Collection::stream)
+                .toList();
+    }
+
+    private List<DrugViolation> validateRange(List<Drug> drugs, int from, int to, Set<UUID> existingIds) {
+        List<DrugViolation> violations = null;
+        for (int i = from; i < to; i++) {
+            Drug drug = drugs.get(i);
+            if (drug == null) {
+                violations = add(violations, i, null, DrugErrorCode.DRUG_REQUIRED);
+                continue;
+            }
+            UUID uid = drug.getUid();
+            if (isBlank(drug.getName())) {
+                violations = add(violations, i, uid, DrugErrorCode.NAME_REQUIRED);
+            }
+            if (isBlank(drug.getManufacturerName())) {
+                violations = add(violations, i, uid, DrugErrorCode.MANUFACTURER_REQUIRED);
+            }
+            if (drug.getQuantity() < 0) {
+                violations = add(violations, i, uid, DrugErrorCode.QUANTITY_NEGATIVE);
+            }
+            BigDecimal price = drug.getPrice();
+            if (price == null) {
+                violations = add(violations, i, uid, DrugErrorCode.PRICE_REQUIRED);
+            } else if (price.signum() < 0) {
+                violations = add(violations, i, uid, DrugErrorCode.PRICE_NEGATIVE);
+            }
+            if (existingIds != null) {
+                if (uid == null) {
+                    violations = add(violations, i, null, DrugErrorCode.ID_REQUIRED);
+                } else if (!existingIds.contains(uid)) {
+                    violations = add(violations, i, uid, DrugErrorCode.DRUG_NOT_FOUND);
+                }
+            }
+        }
+        return violations == null ? List.of() : violations;
+    }
+
+    private static List<DrugViolation> add(List<DrugViolation> violations, int index, UUID uid, DrugErrorCode code) {
+        if (violations == null) {
+            violations = new ArrayList<>();
+        }
+        violations.add(new DrugViolation(index, uid, code));
+        return violations;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,6 +1,9 @@
 package com.surecostproject.takehome.controller;
 
+import com.surecostproject.takehome.cache.CatalogVersion;
 import com.surecostproject.takehome.dto.DrugDTO;
+import com.surecostproject.takehome.dto.DrugPageDTO;
+import com.surecostproject.takehome.dto.DrugView;
 import com.surecostproject.takehome.entity.Drug;
 import com.surecostproject.takehome.mapper.DrugMapper;
 import com.surecostproject.takehome.service.DrugService;
@@ -12,17 +15,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -35,6 +42,9 @@ class DrugControllerTest {
     @Mock
     private DrugMapper drugMapper;
 
+    @Mock
+    private CatalogVersion catalogVersion;
+
     @InjectMocks
     private DrugController drugController;
 
@@ -68,7 +78,7 @@ class DrugControllerTest {
         when(drugMapper.toDTO(testDrug)).thenReturn(testDrugDTO);
 
         // Act
-        ResponseEntity<DrugDTO> response = drugController.createDrug(testDrugDTO);
+        ResponseEntity<DrugDTO> response = drugController.createDrug(testDrugDTO, webRequest());
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -81,22 +91,26 @@ class DrugControllerTest {
     @Test
     void getAllDrugs_Success() {
         // Arrange
-        List<Drug> drugs = Arrays.asList(testDrug);
-        Page<Drug> drugPage = new PageImpl<>(drugs);
-        Pageable pageable = PageRequest.of(0, 20);
+        DrugView view = new DrugView(testId, "Test Drug", "Test Manufacturer", 100, new BigDecimal("10.99"), 0L);
+        Page<DrugView> drugPage = new PageImpl<>(Arrays.asList(view));
 
-        when(drugService.getAllDrugs(any(Pageable.class))).thenReturn(drugPage);
-        when(drugMapper.toDTO(testDrug)).thenReturn(testDrugDTO);
+        when(drugService.getAllDrugs(any(Pageable.class), eq(true))).thenReturn(drugPage);
+        when(catalogVersion.etag()).thenReturn("test-1");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/drugs"), servletResponse);
 
         // Act
-        ResponseEntity<Page<DrugDTO>> response = drugController.getAllDrugs(0, 20, "name", "asc");
+        ResponseEntity<DrugPageDTO> response = drugController.getAllDrugs(0, 20, "name", "asc", true, webRequest);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().getTotalElements());
-        verify(drugService).getAllDrugs(any(Pageable.class));
-        verify(drugMapper).toDTO(testDrug);
+        assertEquals(1L, response.getBody().getTotalElements());
+        assertEquals(view, response.getBody().getContent().get(0));
+        verify(drugService).getAllDrugs(any(Pageable.class), eq(true));
+        assertEquals("W/\"test-1\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        // Read endpoints return the service's projections without a mapping pass
+        verifyNoInteractions(drugMapper);
     }
 
     @Test
@@ -116,16 +130,16 @@ class DrugControllerTest {
     void updateDrug_Success() {
         // Arrange
         when(drugMapper.toEntity(testDrugDTO)).thenReturn(testDrug);
-        when(drugService.updateDrug(eq(testId), any(Drug.class))).thenReturn(testDrug);
+        when(drugService.updateDrug(eq(testId), any(Drug.class), isNull())).thenReturn(testDrug);
         when(drugMapper.toDTO(testDrug)).thenReturn(testDrugDTO);
 
         // Act
-        ResponseEntity<DrugDTO> response = drugController.updateDrug(testId, testDrugDTO);
+        ResponseEntity<DrugDTO> response = drugController.updateDrug(testId, testDrugDTO, null, webRequest());
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(testDrugDTO, response.getBody());
-        verify(drugService).updateDrug(eq(testId), any(Drug.class));
+        verify(drugService).updateDrug(eq(testId), any(Drug.class), isNull());
         verify(drugMapper).toEntity(testDrugDTO);
         verify(drugMapper).toDTO(testDrug);
     }
@@ -161,4 +175,7 @@ class DrugControllerTest {
         // TODO: Implement not found scenario test
     }
 
-} 
\ No newline at end of file
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+}
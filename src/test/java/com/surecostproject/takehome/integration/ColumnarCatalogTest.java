@@ -0,0 +1,181 @@
+package com.surecostproject.takehome.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.surecostproject.takehome.catalog.ColumnarCatalog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:columnar",
+        "drug.catalog.columnar.enabled=true"
+})
+@AutoConfigureMockMvc
+class ColumnarCatalogTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ColumnarCatalog columnarCatalog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void reads_AreServedFromColumnsKeptCurrentByEveryWrite() throws Exception {
+        awaitReady();
+
+        String created = mockMvc.perform(post("/api/drugs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"drugs\":["
+                                + "{\"name\":\"Ibuprofen\",\"manufacturerName\":\"Advil\",\"quantity\":5,\"price\":4.25},"
+                                + "{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99},"
+                                + "{\"name\":\"Aspirin Forte\",\"manufacturerName\":\"Bayer\",\"quantity\":0,\"price\":3.50},"
+                                + "{\"name\":\"Zinc\",\"manufacturerName\":\"Nature\",\"quantity\":7,\"price\":9.00}]}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode drugs = objectMapper.readTree(created);
+        String ibuprofen = drugs.get(0).get("uid").asText();
+        String zinc = drugs.get(3).get("uid").asText();
+
+        double queries = viewQueries();
+        mockMvc.perform(get("/api/drugs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(4))
+                .andExpect(jsonPath("$.content[0].name").value("Aspirin"))
+                .andExpect(jsonPath("$.content[0].price").value(1.99))
+                .andExpect(jsonPath("$.content[1].name").value("Aspirin Forte"))
+                .andExpect(jsonPath("$.content[3].name").value("Zinc"));
+        mockMvc.perform(get("/api/drugs/search/price-range").param("minPrice", "1.995").param("maxPrice", "4.25"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Aspirin Forte"))
+                .andExpect(jsonPath("$.content[1].name").value("Ibuprofen"));
+        mockMvc.perform(get("/api/drugs/search").param("name", "ASPIRIN").param("minQuantity", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].manufacturerName").value("Bayer"));
+        mockMvc.perform(get("/api/drugs/search/manufacturer").param("manufacturer", "bay").param("includeTotal", "false").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Aspirin"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+        mockMvc.perform(get("/api/drugs").param("sortBy", "quantity").param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Aspirin"))
+                .andExpect(jsonPath("$.content[3].name").value("Aspirin Forte"));
+        assertEquals(queries, viewQueries());
+
+        // A set-based bulk update never loads its rows; the catalog still shows the new values and version
+        mockMvc.perform(put("/api/drugs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"drugs\":[{\"uid\":\"" + ibuprofen
+                                + "\",\"name\":\"Acetaminophen\",\"manufacturerName\":\"Tylenol\",\"quantity\":3,\"price\":0.99}]}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/drugs/" + ibuprofen))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.name").value("Acetaminophen"))
+                .andExpect(jsonPath("$.manufacturerName").value("Tylenol"));
+        mockMvc.perform(get("/api/drugs").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Acetaminophen"));
+
+        mockMvc.perform(delete("/api/drugs/" + zinc))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/drugs/" + zinc))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/drugs/search/name").param("name", "zin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+        mockMvc.perform(get("/api/drugs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    void orders_StayConsistentAcrossMergedAndSplicedChanges() throws Exception {
+        awaitReady();
+
+        // More rows than are spliced one at a time, so they are merged into the orders
+        StringBuilder bulk = new StringBuilder("{\"drugs\":[");
+        for (int i = 0; i < 80; i++) {
+            bulk.append(i == 0 ? "" : ",")
+                    .append("{\"name\":\"Ordered ").append(String.format("%02d", i))
+                    .append("\",\"manufacturerName\":\"Ordering\",\"quantity\":1,\"price\":")
+                    .append(500 + i).append("}");
+        }
+        String created = mockMvc.perform(post("/api/drugs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulk.append("]}").toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode drugs = objectMapper.readTree(created);
+
+        // A price change moves the row in the price order only; a delete moves the last row into its slot
+        mockMvc.perform(put("/api/drugs/" + drugs.get(40).get("uid").asText())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ordered 40\",\"manufacturerName\":\"Ordering\",\"quantity\":1,\"price\":9999}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/drugs/" + drugs.get(0).get("uid").asText()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/drugs/search/name").param("name", "ordered").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(79))
+                .andExpect(jsonPath("$.content[0].name").value("Ordered 01"))
+                .andExpect(jsonPath("$.content[78].name").value("Ordered 79"));
+        mockMvc.perform(get("/api/drugs").param("sortBy", "price").param("direction", "desc").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Ordered 40"))
+                .andExpect(jsonPath("$.content[1].name").value("Ordered 79"))
+                .andExpect(jsonPath("$.content[2].name").value("Ordered 78"));
+
+        // Merged out again, leaving the catalog as the other test expects it
+        StringBuilder ids = new StringBuilder("[");
+        for (int i = 1; i < 80; i++) {
+            ids.append(i == 1 ? "" : ",").append('"').append(drugs.get(i).get("uid").asText()).append('"');
+        }
+        mockMvc.perform(delete("/api/drugs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ids.append("]").toString()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/drugs/search/name").param("name", "ordered"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    private void awaitReady() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!columnarCatalog.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(columnarCatalog.isReady());
+    }
+
+    private double viewQueries() {
+        return meterRegistry.find("spring.data.repository.invocations").tag("method", "findViews").timers().stream()
+                .mapToDouble(Timer::count)
+                .sum();
+    }
+}
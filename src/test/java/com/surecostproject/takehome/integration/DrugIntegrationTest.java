@@ -1,26 +1,77 @@
 package com.surecostproject.takehome.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.surecostproject.takehome.cache.DrugCache;
 import com.surecostproject.takehome.dto.DrugDTO;
+import com.surecostproject.takehome.dto.DrugViolation;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.entity.Manufacturer;
+import com.surecostproject.takehome.event.DrugChangeEvent;
+import com.surecostproject.takehome.exception.DrugNotFoundException;
+import com.surecostproject.takehome.inventory.InventoryService;
+import com.surecostproject.takehome.manufacturer.ManufacturerDictionary;
 import com.surecostproject.takehome.repository.DrugRepository;
+import com.surecostproject.takehome.repository.ManufacturerRepository;
+import com.surecostproject.takehome.search.DrugSearchIndex;
+import com.surecostproject.takehome.service.DrugService;
+import com.surecostproject.takehome.validation.DrugErrorCode;
+import com.surecostproject.takehome.validation.DrugValidator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "drug.compression.max-inflated-request-size=64KB")
 @AutoConfigureMockMvc
 class DrugIntegrationTest {
 
@@ -33,6 +84,33 @@ class DrugIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DrugSearchIndex drugSearchIndex;
+
+    @Autowired
+    private DrugCache drugCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private DrugService drugService;
+
+    @Autowired
+    private ManufacturerDictionary manufacturerDictionary;
+
+    @SpyBean
+    private ManufacturerRepository manufacturerRepository;
+
+    @SpyBean
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void setUp() {
         drugRepository.deleteAll();
@@ -65,6 +143,704 @@ class DrugIntegrationTest {
                 .andExpect(jsonPath("$.manufacturerName").value("Test Manufacturer"));
     }
 
+    @Test
+    void importDrugs_FromNdjsonStream_ReportsInvalidRows() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99}",
+                "{\"name\":\"\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99}",
+                "{\"name\":\"Ibuprofen\",\"manufacturerName\":\"Pfizer\",\"quantity\":\"many\",\"price\":2.49}",
+                "{\"name\":\"Paracetamol\",\"manufacturerName\":\"Sanofi\",\"quantity\":5,\"price\":0.99}");
+
+        mockMvc.perform(post("/api/drugs/bulk/stream")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.received").value(4))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0]").value("Drug at index 1: Drug name cannot be empty"));
+
+        assertEquals(2, drugRepository.count());
+    }
+
+    @Test
+    void importDrugs_FromJsonArray_PersistsAllRows() throws Exception {
+        String array = "[{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99},"
+                + "{\"name\":\"Paracetamol\",\"manufacturerName\":\"Sanofi\",\"quantity\":5,\"price\":0.99}]";
+
+        mockMvc.perform(post("/api/drugs/bulk/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(array))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        assertEquals(2, drugRepository.count());
+    }
+
+    @Test
+    void updateBulkDrugs_UpdatesRowsAndReportsMissingIdsByIndex() throws Exception {
+        Drug existing = drugRepository.save(new Drug(null, "Aspirin", "Bayer", 10, new BigDecimal("1.99")));
+        UUID missingId = UUID.randomUUID();
+
+        String body = "{\"drugs\":["
+                + "{\"uid\":\"" + existing.getUid() + "\",\"name\":\"Aspirin Forte\",\"manufacturerName\":\"Bayer\",\"quantity\":20,\"price\":2.49},"
+                + "{\"uid\":\"" + missingId + "\",\"name\":\"Ghost\",\"manufacturerName\":\"Nobody\",\"quantity\":1,\"price\":1.00}]}";
+
+        mockMvc.perform(put("/api/drugs/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("Drug at index 1: Drug not found with id: " + missingId))
+                .andExpect(jsonPath("$.violations[0].index").value(1))
+                .andExpect(jsonPath("$.violations[0].field").value("uid"))
+                .andExpect(jsonPath("$.violations[0].code").value("DRUG_NOT_FOUND"));
+
+        String valid = body.substring(0, body.indexOf("},{") + 1) + "]}";
+        mockMvc.perform(put("/api/drugs/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(valid))
+                .andExpect(status().isOk());
+
+        Drug updated = drugRepository.findById(existing.getUid()).orElseThrow();
+        assertEquals("Aspirin Forte", updated.getName());
+        assertEquals(20, updated.getQuantity());
+        assertEquals(0, new BigDecimal("2.49").compareTo(updated.getPrice()));
+    }
+
+    @Test
+    void invalidDrugs_ReportEveryViolationWithItsCode() throws Exception {
+        String body = "{\"drugs\":["
+                + "{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99},"
+                + "{\"name\":\" \",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":-1}]}";
+        mockMvc.perform(post("/api/drugs/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Bulk validation failed"))
+                .andExpect(jsonPath("$.errors[1]").value("Drug at index 1: Price cannot be negative"))
+                .andExpect(jsonPath("$.violations[0].index").value(1))
+                .andExpect(jsonPath("$.violations[0].code").value("NAME_REQUIRED"))
+                .andExpect(jsonPath("$.violations[1].field").value("price"))
+                .andExpect(jsonPath("$.violations[1].code").value("PRICE_NEGATIVE"));
+
+        mockMvc.perform(post("/api/drugs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":-1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Validation failed"))
+                .andExpect(jsonPath("$.errors[0]").value("quantity: Quantity cannot be negative"))
+                .andExpect(jsonPath("$.violations[1].code").value("PRICE_REQUIRED"));
+
+        // Chunked parallel validation reports the same violations in index order
+        List<Drug> drugs = new ArrayList<>();
+        for (int i = 0; i < 3 * 5000; i++) {
+            drugs.add(new Drug(null, i % 1000 == 0 ? "" : "Drug " + i, "Bayer", 1, BigDecimal.ONE));
+        }
+        List<DrugViolation> violations = new DrugValidator(1).validate(drugs);
+        assertEquals(new DrugValidator(Integer.MAX_VALUE).validate(drugs), violations);
+        assertEquals(drugs.size() / 1000, violations.size());
+        assertEquals(DrugErrorCode.NAME_REQUIRED, violations.get(violations.size() - 1).code());
+        assertEquals(drugs.size() - 1000, violations.get(violations.size() - 1).index());
+    }
+
+    @Test
+    void searchByNameAndManufacturer_ReflectCommittedWrites() throws Exception {
+        drugSearchIndex.rebuild();
+        String body = "{\"drugs\":["
+                + "{\"name\":\"Atorvastatin 10mg\",\"manufacturerName\":\"Pfizer\",\"quantity\":10,\"price\":5.00},"
+                + "{\"name\":\"Simvastatin 20mg\",\"manufacturerName\":\"Merck\",\"quantity\":10,\"price\":4.00},"
+                + "{\"name\":\"Ibuprofen 200mg\",\"manufacturerName\":\"Pfizer\",\"quantity\":10,\"price\":3.00}]}";
+        mockMvc.perform(post("/api/drugs/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/drugs/search/name").param("name", "VASTATIN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Atorvastatin 10mg"))
+                .andExpect(jsonPath("$.content[1].name").value("Simvastatin 20mg"));
+
+        mockMvc.perform(get("/api/drugs/search/manufacturer").param("manufacturer", "fiz"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void searchIndex_LateChangeEventCannotRestoreAnOlderName() throws Exception {
+        drugSearchIndex.rebuild();
+        Drug drug = drugRepository.save(new Drug(null, "Metformin 500mg", "Teva", 10, new BigDecimal("2.00")));
+        Drug stale = new Drug(drug.getUid(), "Metformin 500mg", "Teva", 10, new BigDecimal("2.00"));
+
+        DrugDTO update = new DrugDTO();
+        update.setName("Glipizide 5mg");
+        update.setManufacturerName("Teva");
+        update.setQuantity(10);
+        update.setPrice(new BigDecimal("2.00"));
+        mockMvc.perform(put("/api/drugs/" + drug.getUid())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        // The create's after-commit listener finishing last, with the entity it saw
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(DrugChangeEvent.upserted(List.of(stale))));
+
+        mockMvc.perform(get("/api/drugs/search/name").param("name", "metformin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+        mockMvc.perform(get("/api/drugs/search/name").param("name", "glipizide"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Glipizide 5mg"));
+    }
+
+    @Test
+    void getAllDrugs_ReturnsLeanPageWithOptionalTotal() throws Exception {
+        for (String name : List.of("Alpha", "Bravo", "Charlie")) {
+            drugRepository.save(new Drug(null, name, "Bayer", 1, new BigDecimal("1.50")));
+        }
+
+        mockMvc.perform(get("/api/drugs").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Alpha"))
+                .andExpect(jsonPath("$.content[0].price").value(1.50))
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+
+        mockMvc.perform(get("/api/drugs").param("size", "2").param("page", "1").param("includeTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Charlie"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void conditionalRequests_UseRowVersionAndCatalogETags() throws Exception {
+        DrugDTO drugDTO = new DrugDTO();
+        drugDTO.setName("Losartan 50mg");
+        drugDTO.setManufacturerName("Teva");
+        drugDTO.setQuantity(30);
+        drugDTO.setPrice(new BigDecimal("7.25"));
+        MvcResult created = mockMvc.perform(post("/api/drugs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(drugDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn();
+        String id = objectMapper.readTree(created.getResponse().getContentAsString()).get("uid").asText();
+
+        mockMvc.perform(get("/api/drugs/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        String pageTag = mockMvc.perform(get("/api/drugs"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/drugs").header(HttpHeaders.IF_NONE_MATCH, pageTag))
+                .andExpect(status().isNotModified());
+
+        drugDTO.setQuantity(25);
+        mockMvc.perform(put("/api/drugs/" + id)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(drugDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        // A second writer still holding version 0 must not overwrite the change
+        mockMvc.perform(put("/api/drugs/" + id)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(drugDTO)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/drugs/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.quantity").value(25));
+        mockMvc.perform(get("/api/drugs").header(HttpHeaders.IF_NONE_MATCH, pageTag))
+                .andExpect(status().isOk());
+
+        inventoryService.adjustQuantity(UUID.fromString(id), 5);
+        inventoryService.flush();
+        mockMvc.perform(get("/api/drugs/" + id))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
+    @Test
+    void scrollAllDrugs_WalksCatalogWithCursor() throws Exception {
+        for (String name : List.of("Delta", "Alpha", "Echo", "Charlie", "Bravo")) {
+            drugRepository.save(new Drug(null, name, "Bayer", 1, new BigDecimal("1.00")));
+        }
+
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            MvcResult result = mockMvc.perform(get("/api/drugs/scroll")
+                    .param("size", "2")
+                    .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode slice = objectMapper.readTree(result.getResponse().getContentAsString());
+            slice.get("content").forEach(drug -> names.add(drug.get("name").asText()));
+            cursor = slice.get("nextCursor").isNull() ? null : slice.get("nextCursor").asText();
+            slices++;
+        } while (cursor != null);
+
+        assertEquals(List.of("Alpha", "Bravo", "Charlie", "Delta", "Echo"), names);
+        assertEquals(3, slices);
+    }
+
+    @Test
+    void getDrugById_ServedFromCacheAndInvalidatedByUpdate() throws Exception {
+        Drug drug = drugRepository.save(new Drug(null, "Aspirin", "Bayer", 10, new BigDecimal("1.99")));
+        long hitsBefore = drugCache.stats().getHits();
+
+        mockMvc.perform(get("/api/drugs/" + drug.getUid())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/drugs/" + drug.getUid()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(10));
+        assertEquals(hitsBefore + 1, drugCache.stats().getHits());
+
+        mockMvc.perform(put("/api/drugs/" + drug.getUid())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":25,\"price\":1.99}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/drugs/" + drug.getUid()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(25));
+    }
+
+    @Test
+    void exportDrugs_StreamsNdjsonAndCsv() throws Exception {
+        drugRepository.save(new Drug(null, "Aspirin", "Bayer, AG", 10, new BigDecimal("1.99")));
+        drugRepository.save(new Drug(null, "Ibuprofen", "Pfizer", 5, new BigDecimal("2.49")));
+
+        MvcResult ndjson = mockMvc.perform(get("/api/drugs/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjsonBody = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = ndjsonBody.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("Bayer, AG", objectMapper.readTree(lines.stream()
+                .filter(line -> line.contains("Aspirin")).findFirst().orElseThrow()).get("manufacturerName").asText());
+
+        MvcResult csv = mockMvc.perform(get("/api/drugs/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csvBody = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("uid,name,manufacturerName,quantity,price", csvBody.lines().findFirst().orElseThrow());
+        assertTrue(csvBody.contains(",Aspirin,\"Bayer, AG\",10,1.99"));
+    }
+
+    @Test
+    void binaryEncodingsAndGzipUploads_AreNegotiated() throws Exception {
+        String body = "{\"drugs\":[{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99}]}";
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        mockMvc.perform(post("/api/drugs/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .content(gzipped.toByteArray()))
+                .andExpect(status().isCreated());
+
+        SmileMapper smileMapper = new SmileMapper();
+        byte[] smileBody = smileMapper.writeValueAsBytes(objectMapper.readTree(
+                "{\"drugs\":[{\"name\":\"Ibuprofen\",\"manufacturerName\":\"Pfizer\",\"quantity\":5,\"price\":2.49}]}"));
+        mockMvc.perform(post("/api/drugs/bulk")
+                .contentType("application/x-jackson-smile")
+                .content(smileBody))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].name").value("Ibuprofen"));
+
+        MvcResult cbor = mockMvc.perform(get("/api/drugs").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+        JsonNode page = new CBORMapper().readTree(cbor.getResponse().getContentAsByteArray());
+        assertEquals(2, page.get("totalElements").asInt());
+        assertEquals("Aspirin", page.get("content").get(0).get("name").asText());
+        assertEquals(0, new BigDecimal("1.99").compareTo(page.get("content").get(0).get("price").decimalValue()));
+        assertTrue(cbor.getResponse().getHeader(HttpHeaders.ETAG).endsWith("-cbor\""));
+
+        MvcResult export = mockMvc.perform(get("/api/drugs/export").param("format", "smile"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] exported = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        try (MappingIterator<JsonNode> rows = smileMapper.readerFor(JsonNode.class).readValues(exported)) {
+            assertEquals(2, rows.readAll().size());
+        }
+    }
+
+    @Test
+    void gzipUploads_TooLargeOrCorrupt_AreAnsweredWithClientErrors() throws Exception {
+        StringBuilder drugs = new StringBuilder("{\"drugs\":[");
+        for (int i = 0; i < 1_000; i++) {
+            drugs.append(i == 0 ? "" : ",")
+                    .append("{\"name\":\"Aspirin ").append(i).append("\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99}");
+        }
+        byte[] tooLarge = gzip(drugs.append("]}").toString());
+        // Inflates past the 64KB this class configures
+        mockMvc.perform(post("/api/drugs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(tooLarge))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.status").value(413));
+
+        byte[] valid = gzip("{\"drugs\":[{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99}]}");
+        mockMvc.perform(post("/api/drugs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(Arrays.copyOf(valid, valid.length / 2)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("not valid gzip")));
+        mockMvc.perform(post("/api/drugs/bulk/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content("{\"drugs\":[]}"))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, drugRepository.count());
+    }
+
+    @Test
+    void bulkCreate_RecordsBatchSizeAndPayloadMetrics() throws Exception {
+        String body = "{\"drugs\":[{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99},"
+                + "{\"name\":\"Ibuprofen\",\"manufacturerName\":\"Pfizer\",\"quantity\":5,\"price\":2.49}]}";
+
+        DistributionSummary batchSize = meterRegistry.get("drug.bulk.batch.size").tag("operation", "create").summary();
+        double batchTotalBefore = batchSize.totalAmount();
+        double requestTotalBefore = bulkRequestBytes();
+
+        mockMvc.perform(post("/api/drugs/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated());
+
+        assertEquals(batchTotalBefore + 2, batchSize.totalAmount());
+        assertEquals(requestTotalBefore + body.length(), bulkRequestBytes());
+
+        // Made-up methods share one tag value instead of each registering meters
+        mockMvc.perform(MockMvcRequestBuilders.request(HttpMethod.valueOf("PROPFIND"), "/api/drugs/bulk"));
+        mockMvc.perform(MockMvcRequestBuilders.request(HttpMethod.valueOf("MKCOL"), "/api/drugs/bulk"));
+        assertEquals(2, meterRegistry.get("http.server.request.size").tag("method", "OTHER").summaries().stream()
+                .mapToLong(DistributionSummary::count)
+                .sum());
+        assertTrue(meterRegistry.find("http.server.request.size").tag("method", "PROPFIND").summaries().isEmpty());
+    }
+
+    @Test
+    void bulkUpdateJob_ReportsProgressAndRowErrors() throws Exception {
+        Drug existing = drugRepository.save(new Drug(null, "Aspirin", "Bayer", 10, new BigDecimal("1.99")));
+        String body = "{\"drugs\":["
+                + "{\"uid\":\"" + existing.getUid() + "\",\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":20,\"price\":1.99},"
+                + "{\"uid\":\"" + UUID.randomUUID() + "\",\"name\":\"Ghost\",\"manufacturerName\":\"Nobody\",\"quantity\":1,\"price\":1.00}]}";
+
+        MvcResult submitted = mockMvc.perform(put("/api/drugs/jobs/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.totalItems").value(2))
+                .andReturn();
+        String location = submitted.getResponse().getHeader("Location");
+
+        JsonNode job = objectMapper.createObjectNode();
+        for (int attempt = 0; attempt < 100 && !job.path("finishedAt").isTextual(); attempt++) {
+            Thread.sleep(50);
+            job = objectMapper.readTree(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        }
+
+        assertEquals("COMPLETED_WITH_ERRORS", job.get("status").asText());
+        assertEquals(2, job.get("failedItems").asInt());
+        assertTrue(job.get("errors").get(0).asText().startsWith("Chunk starting at index 0: Drug at index 1"));
+        assertEquals(10, drugRepository.findById(existing.getUid()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void partialBulkCreate_CommitsValidRowsAndIsolatesFailures() throws Exception {
+        String tooLongName = "X".repeat(300);
+        String body = "{\"drugs\":["
+                + "{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99},"
+                + "{\"name\":\"\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99},"
+                + "{\"name\":\"" + tooLongName + "\",\"manufacturerName\":\"Pfizer\",\"quantity\":5,\"price\":2.49},"
+                + "{\"name\":\"Ibuprofen\",\"manufacturerName\":\"Pfizer\",\"quantity\":5,\"price\":2.49}]}";
+
+        mockMvc.perform(post("/api/drugs/bulk/partial")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeededCount").value(2))
+                .andExpect(jsonPath("$.succeeded[0].index").value(0))
+                .andExpect(jsonPath("$.succeeded[1].index").value(3))
+                .andExpect(jsonPath("$.failed[0].index").value(1))
+                .andExpect(jsonPath("$.failed[0].error").value("Drug name cannot be empty"))
+                .andExpect(jsonPath("$.failed[1].index").value(2));
+
+        assertEquals(2, drugRepository.count());
+    }
+
+    @Test
+    void partialBulkCreate_RetriedRowsResolveManufacturersRolledBackWithTheirChunk() throws Exception {
+        // The first row's manufacturer is new, so it is inserted in the chunk that the second row fails
+        String body = "{\"drugs\":["
+                + "{\"name\":\"Aspirin\",\"manufacturerName\":\"Brand New Labs\",\"quantity\":10,\"price\":1.99},"
+                + "{\"name\":\"" + "X".repeat(300) + "\",\"manufacturerName\":\"Pfizer\",\"quantity\":5,\"price\":2.49}]}";
+
+        mockMvc.perform(post("/api/drugs/bulk/partial")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeededCount").value(1))
+                .andExpect(jsonPath("$.succeeded[0].index").value(0))
+                .andExpect(jsonPath("$.failed[0].index").value(1))
+                .andExpect(jsonPath("$.failed[0].error").value(DrugErrorCode.WRITE_REJECTED.message()));
+
+        mockMvc.perform(get("/api/drugs/search/manufacturer").param("manufacturer", "brand new labs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].manufacturerName").value("Brand New Labs"));
+    }
+
+    @Test
+    void adjustQuantity_CoalescesDeltasAndNeverGoesNegative() throws Exception {
+        Drug drug = drugRepository.save(new Drug(null, "Aspirin", "Bayer", 10, new BigDecimal("1.99")));
+        String path = "/api/drugs/" + drug.getUid() + "/quantity/adjustments";
+
+        mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content("{\"delta\":-3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(7));
+        mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content("{\"delta\":-8}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content("{\"delta\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(12));
+
+        inventoryService.flush();
+        assertEquals(12, drugRepository.findById(drug.getUid()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void adjustQuantity_FailedFlushIsRetriedWhateverTheFailure() throws Exception {
+        // A transaction failure, not a DataAccessException
+        doThrow(new CannotCreateTransactionException("database down")).when(transactionTemplate).execute(any());
+        Drug drug = drugRepository.save(new Drug(null, "Aspirin", "Bayer", 10, new BigDecimal("1.99")));
+        inventoryService.adjustQuantity(drug.getUid(), 4);
+        assertEquals(0, inventoryService.flush());
+        assertEquals(10, drugRepository.findById(drug.getUid()).orElseThrow().getQuantity());
+
+        reset(transactionTemplate);
+        mockMvc.perform(post("/api/drugs/" + drug.getUid() + "/quantity/adjustments")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"delta\":1}"))
+                .andExpect(jsonPath("$.quantity").value(15));
+        inventoryService.flush();
+        assertEquals(15, drugRepository.findById(drug.getUid()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void searchDrugs_CombinesFiltersInOneQuery() throws Exception {
+        drugRepository.save(new Drug(null, "Atorvastatin 10mg", "Pfizer", 10, new BigDecimal("5.00")));
+        drugRepository.save(new Drug(null, "Atorvastatin 20mg", "Pfizer", 0, new BigDecimal("7.00")));
+        drugRepository.save(new Drug(null, "Atorvastatin 40mg", "Pfizer", 3, new BigDecimal("12.00")));
+        drugRepository.save(new Drug(null, "Atorvastatin 10mg", "Teva", 8, new BigDecimal("4.00")));
+
+        mockMvc.perform(get("/api/drugs/search")
+                .param("name", "atorva")
+                .param("manufacturer", "Pfizer")
+                .param("maxPrice", "10.00")
+                .param("minQuantity", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Atorvastatin 10mg"))
+                .andExpect(jsonPath("$.content[0].manufacturerName").value("Pfizer"));
+
+        mockMvc.perform(get("/api/drugs/search")
+                .param("minPrice", "10.00")
+                .param("maxPrice", "5.00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchByNamePrefix_IgnoresCaseAccentsAndSpacing() throws Exception {
+        Drug drug = drugRepository.save(new Drug(null, "  Crème   Hydratante ", "Laboratoires Bïoderma", 10, new BigDecimal("9.90")));
+        drugRepository.save(new Drug(null, "Hydrocortisone Crème", "Bayer", 5, new BigDecimal("4.50")));
+        assertEquals("creme hydratante", drug.getNameSearch());
+
+        mockMvc.perform(get("/api/drugs/search/name")
+                .param("name", "CREME hydr")
+                .param("match", "prefix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].uid").value(drug.getUid().toString()));
+
+        mockMvc.perform(get("/api/drugs/search")
+                .param("manufacturer", "laboratoires bioderma"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void manufacturers_AreInternedAndSortableByName() throws Exception {
+        Drug ibuprofen = drugRepository.save(new Drug(null, "Ibuprofen", "Zydus Lifesciences", 5, new BigDecimal("3.00")));
+        Drug naproxen = drugRepository.save(new Drug(null, "Naproxen", "  ZYDUS   lifesciences", 3, new BigDecimal("4.00")));
+        drugRepository.save(new Drug(null, "Amoxicillin", "Aurobindo Pharma", 7, new BigDecimal("6.00")));
+        assertEquals(ibuprofen.getManufacturerId(), naproxen.getManufacturerId());
+
+        DrugDTO update = new DrugDTO();
+        update.setName("Naproxen");
+        update.setManufacturerName("Aurobindo Pharma");
+        update.setQuantity(3);
+        update.setPrice(new BigDecimal("4.00"));
+        mockMvc.perform(put("/api/drugs/" + naproxen.getUid())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/drugs/search/manufacturer").param("manufacturer", "zydus"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].manufacturerName").value("Zydus Lifesciences"));
+
+        mockMvc.perform(get("/api/drugs").param("sortBy", "manufacturerName").param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].manufacturerName").value("Zydus Lifesciences"))
+                .andExpect(jsonPath("$.content[2].manufacturerName").value("Aurobindo Pharma"));
+
+        MvcResult firstSlice = mockMvc.perform(get("/api/drugs/scroll").param("sortBy", "manufacturerName").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].manufacturerName").value("Aurobindo Pharma"))
+                .andReturn();
+        String cursor = objectMapper.readTree(firstSlice.getResponse().getContentAsString()).get("nextCursor").asText();
+        mockMvc.perform(get("/api/drugs/scroll").param("cursor", cursor).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Ibuprofen"));
+    }
+
+    @Test
+    void newManufacturer_InsertedConcurrentlyElsewhere_IsReadBackInsteadOfFailingTheWrite() throws Exception {
+        // Inserted behind the dictionary's back, and hidden from its first lookup as if still uncommitted
+        Manufacturer raced = manufacturerRepository.saveAndFlush(new Manufacturer("Race Labs", "race labs"));
+        doReturn(Optional.empty()).doReturn(Optional.of(raced)).when(manufacturerRepository).findBySearchName("race labs");
+
+        DrugDTO drug = new DrugDTO();
+        drug.setName("Placebo");
+        drug.setManufacturerName("Race Labs");
+        drug.setQuantity(1);
+        drug.setPrice(new BigDecimal("1.00"));
+        mockMvc.perform(post("/api/drugs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(drug)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.manufacturerName").value("Race Labs"));
+        assertEquals(Optional.of(raced.getId()), manufacturerDictionary.findId("RACE LABS"));
+    }
+
+    @Test
+    void manufacturerInventory_StaysExactAcrossWritesAndConcurrentUpdates() throws Exception {
+        String body = "{\"drugs\":["
+                + "{\"name\":\"Cetirizine\",\"manufacturerName\":\"Cipla Limited\",\"quantity\":10,\"price\":2.50},"
+                + "{\"name\":\"Azithromycin\",\"manufacturerName\":\"Cipla Limited\",\"quantity\":4,\"price\":10.00}]}";
+        MvcResult created = mockMvc.perform(post("/api/drugs/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode drugs = objectMapper.readTree(created.getResponse().getContentAsString());
+        UUID cetirizine = UUID.fromString(drugs.get(0).get("uid").asText());
+        UUID azithromycin = UUID.fromString(drugs.get(1).get("uid").asText());
+
+        mockMvc.perform(get("/api/manufacturers/inventory/by-name").param("manufacturer", "cipla  limited"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.drugCount").value(2))
+                .andExpect(jsonPath("$.totalUnits").value(14))
+                .andExpect(jsonPath("$.stockValue").value(65.00));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                int quantity = i;
+                writes.add(executor.submit(() -> drugService.updateDrug(azithromycin,
+                        new Drug(null, "Azithromycin", "Cipla Limited", quantity, new BigDecimal("10.00")))));
+                writes.add(executor.submit(() -> inventoryService.adjustQuantity(cetirizine, 1)));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        inventoryService.flush();
+        mockMvc.perform(delete("/api/drugs/" + azithromycin)).andExpect(status().isNoContent());
+
+        Drug remaining = drugRepository.findById(cetirizine).orElseThrow();
+        assertEquals(50, remaining.getQuantity());
+        mockMvc.perform(get("/api/manufacturers/inventory/by-name").param("manufacturer", "Cipla Limited"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.drugCount").value(1))
+                .andExpect(jsonPath("$.totalUnits").value(50))
+                .andExpect(jsonPath("$.stockValue").value(125.00));
+        mockMvc.perform(get("/api/manufacturers/inventory/by-name").param("manufacturer", "Unknown Labs"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/manufacturers/inventory").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.size").value(1))
+                .andExpect(jsonPath("$.hasNext").isBoolean())
+                .andExpect(jsonPath("$.totalElements").isNumber())
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @Test
+    void missingDrugs_AreCountedAndAnsweredWithoutStackTraces() throws Exception {
+        double before = notFoundErrors();
+        for (int i = 0; i < 25; i++) {
+            UUID missingId = UUID.randomUUID();
+            mockMvc.perform(get("/api/drugs/" + missingId))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message").value("Drug not found with id: " + missingId))
+                    .andExpect(jsonPath("$.path").value("uri=/api/drugs/" + missingId));
+        }
+
+        assertEquals(25, notFoundErrors() - before);
+        assertEquals(0, new DrugNotFoundException(UUID.randomUUID()).getStackTrace().length);
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return gzipped.toByteArray();
+    }
+
+    private double notFoundErrors() {
+        return meterRegistry.get("drug.api.errors").tag("kind", "drug_not_found").counter().count();
+    }
+
+    private double bulkRequestBytes() {
+        DistributionSummary requestSize = meterRegistry.find("http.server.request.size")
+                .tag("method", "POST").tag("uri", "/api/drugs/bulk").summary();
+        return requestSize != null ? requestSize.totalAmount() : 0;
+    }
+
     /*
     Additional Integration Tests that could be implemented with more time: */
 
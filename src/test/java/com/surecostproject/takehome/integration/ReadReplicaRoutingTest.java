@@ -0,0 +1,91 @@
+package com.surecostproject.takehome.integration;
+
+import com.surecostproject.takehome.datasource.H2ReplicaSnapshots;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two in-memory databases copied from the primary at startup stand in for streaming replicas that lag
+// by longer than the test runs
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicated;DB_CLOSE_DELAY=-1",
+        "drug.datasource.replica-urls=jdbc:h2:mem:replica-a;DB_CLOSE_DELAY=-1,jdbc:h2:mem:replica-b;DB_CLOSE_DELAY=-1",
+        "drug.datasource.replica-snapshot-interval=PT1H",
+        "drug.datasource.read-your-writes-window=PT1M"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    private static final String PRIMARY_UNTIL_COOKIE = "drug-read-primary-until";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private H2ReplicaSnapshots replicaSnapshots;
+
+    @Test
+    void readsGoToReplicasExceptAfterTheClientsOwnWrite() throws Exception {
+        double replicaReads = reads("replica");
+        mockMvc.perform(get("/api/drugs"))
+                .andExpect(status().isOk());
+        assertTrue(reads("replica") > replicaReads);
+
+        MvcResult created = mockMvc.perform(post("/api/drugs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Aspirin\",\"manufacturerName\":\"Bayer\",\"quantity\":10,\"price\":1.99}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie primaryUntil = created.getResponse().getCookie(PRIMARY_UNTIL_COOKIE);
+        assertNotNull(primaryUntil);
+        assertTrue(Long.parseLong(primaryUntil.getValue()) > System.currentTimeMillis());
+
+        // The writer reads its own write from the primary, and its pages are tagged
+        replicaReads = reads("replica");
+        double primaryReads = reads("primary");
+        mockMvc.perform(get("/api/drugs").cookie(primaryUntil))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.content[0].name").value("Aspirin"));
+        assertEquals(replicaReads, reads("replica"));
+        assertTrue(reads("primary") > primaryReads);
+
+        // Other clients read from a replica that has not caught up, so their pages stay untagged for the window
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/drugs"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                    .andExpect(jsonPath("$.content.length()").value(0));
+        }
+        assertTrue(reads("replica") > replicaReads);
+
+        // Once the replicas catch up, everyone sees the write
+        replicaSnapshots.copyPrimary();
+        mockMvc.perform(get("/api/drugs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Aspirin"));
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("drug.datasource.reads").tag("target", target).counter().count();
+    }
+}
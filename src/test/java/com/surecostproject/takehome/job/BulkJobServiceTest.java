@@ -0,0 +1,80 @@
+package com.surecostproject.takehome.job;
+
+import com.surecostproject.takehome.dto.BulkJobDTO;
+import com.surecostproject.takehome.entity.Drug;
+import com.surecostproject.takehome.exception.BulkJobRejectedException;
+import com.surecostproject.takehome.service.DrugService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class BulkJobServiceTest {
+
+    @Mock
+    private DrugService drugService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger mostRunning = new AtomicInteger();
+    private BulkJobService bulkJobService;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } finally {
+                running.decrementAndGet();
+            }
+            return invocation.getArgument(0);
+        }).when(drugService).createBulkDrugs(anyList());
+        bulkJobService = new BulkJobService(drugService, 1, 1, 1000, 100, Duration.ofHours(1), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bulkJobService.shutdown();
+    }
+
+    @Test
+    void virtualThreadWorkers_KeepTheWorkerLimitAndQueueCapacity() throws Exception {
+        BulkJobDTO first = bulkJobService.submitDrugs(BulkJobOperation.CREATE, drugs());
+        BulkJobDTO queued = bulkJobService.submitDrugs(BulkJobOperation.CREATE, drugs());
+
+        assertThrows(BulkJobRejectedException.class,
+                () -> bulkJobService.submitDrugs(BulkJobOperation.CREATE, drugs()));
+
+        release.countDown();
+        for (BulkJobDTO job : List.of(first, queued)) {
+            BulkJobDTO progress = bulkJobService.getJob(job.getJobId());
+            for (int attempt = 0; attempt < 100 && progress.getFinishedAt() == null; attempt++) {
+                Thread.sleep(50);
+                progress = bulkJobService.getJob(job.getJobId());
+            }
+            assertEquals(BulkJobStatus.COMPLETED, progress.getStatus());
+        }
+        assertEquals(1, mostRunning.get());
+    }
+
+    private static List<Drug> drugs() {
+        return List.of(new Drug(null, "Aspirin", "Bayer", 1, BigDecimal.ONE));
+    }
+}